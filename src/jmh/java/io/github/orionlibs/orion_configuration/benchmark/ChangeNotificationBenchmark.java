@@ -0,0 +1,77 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * the writer-side cost of change notifications: a loadProps of numberOfKeys changed keys
+ * and single updateProp calls, with numberOfListeners prefix listeners on the default executor
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChangeNotificationBenchmark
+{
+    @Param({"10000"})
+    private int numberOfKeys;
+    @Param({"0", "1", "16"})
+    private int numberOfListeners;
+    private ConfigurationRegistry registry;
+    private Properties[] batches;
+    private LongAdder events;
+    private int counter;
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        registry = ConfigurationRegistry.of();
+        events = new LongAdder();
+        for(int i = 0; i < numberOfListeners; i++)
+        {
+            registry.addPrefixChangeListener("benchmark.", event -> events.increment());
+        }
+        batches = new Properties[2];
+        for(int batch = 0; batch < batches.length; batch++)
+        {
+            batches[batch] = new Properties();
+            for(int i = 0; i < numberOfKeys; i++)
+            {
+                batches[batch].setProperty("benchmark.key." + i, "value-" + batch);
+            }
+        }
+    }
+
+
+    @Benchmark
+    public ConfigurationRegistry loadChangedBatch()
+    {
+        registry.loadProps(batches[counter++ & 1]);
+        return registry;
+    }
+
+
+    @Benchmark
+    public ConfigurationRegistry updateOneKey()
+    {
+        registry.updateProp("benchmark.key.0", (counter++ & 1) == 0 ? "a" : "b");
+        return registry;
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import io.github.orionlibs.orion_configuration.ConfigurationRegistryOptions;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * reads and writes of a large registry with compact storage on and off. Keys share dotted prefixes
+ * and most values repeat, as in generated configurations. Compare the retained heap of the two
+ * by running with -prof gc on setupRegistry, or with a heap dump.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class CompactStorageBenchmark
+{
+    private static final String[] Hosts = {"db1.internal.example.com", "db2.internal.example.com", "cache.internal.example.com"};
+    @Param({"1000000"})
+    private int numberOfKeys;
+    @Param({"false", "true"})
+    private boolean compactStorageEnabled;
+    private ConfigurationRegistry registry;
+    private String[] keys;
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        registry = ConfigurationRegistry.of(ConfigurationRegistryOptions.builder()
+                        .reverseIndexEnabled(false)
+                        .compactStorageEnabled(compactStorageEnabled)
+                        .systemPropertiesMode(ConfigurationRegistryOptions.SystemPropertiesMode.Skipped)
+                        .build());
+        keys = new String[numberOfKeys];
+        registry.update(batch ->
+        {
+            for(int i = 0; i < numberOfKeys; i++)
+            {
+                keys[i] = "app.module" + (i % 50) + ".component" + (i % 997) + ".setting" + i;
+                batch.registerProp(keys[i], valueOf(i));
+            }
+        });
+    }
+
+
+    private static String valueOf(int i)
+    {
+        switch(i % 6)
+        {
+            case 0:
+                return "true";
+            case 1:
+                return "false";
+            case 2:
+                return "0";
+            case 3:
+                return Hosts[i % Hosts.length];
+            case 4:
+                return Integer.toString(i % 100);
+            default:
+                return "value-" + i;
+        }
+    }
+
+
+    private String randomKey()
+    {
+        return keys[ThreadLocalRandom.current().nextInt(numberOfKeys)];
+    }
+
+
+    @Benchmark
+    public String getProp()
+    {
+        return registry.getProp(randomKey());
+    }
+
+
+    @Benchmark
+    public String getMissingProp()
+    {
+        return registry.getProp("app.missing." + ThreadLocalRandom.current().nextInt(1024));
+    }
+
+
+    @Benchmark
+    public void updateProp()
+    {
+        registry.updateProp(randomKey(), valueOf(ThreadLocalRandom.current().nextInt(1000)));
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_assert.ResourceException;
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import io.github.orionlibs.orion_configuration.ConfigurationRegistryOptions;
+import io.github.orionlibs.orion_configuration.ConfigurationSource;
+import io.github.orionlibs.orion_configuration.InMemoryConfigurationService;
+import io.github.orionlibs.orion_configuration.PropertiesParser;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * bulk paths: parsing a .properties stream with Properties.load and with PropertiesParser,
+ * loading it into a registry from a stream or a memory-mapped file, with and without lazy values, parsing many sources one by one or
+ * in parallel through loadAll, exporting the shared registry
+ * as a copied map, through the asMap view or the forEachProp visitor, and taking a snapshot of it
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigurationLoadBenchmark
+{
+    private static final int NumberOfSources = 32;
+    @Param({"10000"})
+    private int numberOfKeys;
+    private byte[] propertiesFile;
+    private byte[][] sourceFiles;
+    /**
+     * values too long for the parser's value cache, which lazy decoded values apply to
+     */
+    private byte[] longValuesFile;
+    private Path mappedFile;
+    private ConfigurationRegistry registry;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        StringBuilder file = new StringBuilder();
+        for(int i = 0; i < numberOfKeys; i++)
+        {
+            file.append("# property ").append(i).append('\n');
+            file.append("service.module").append(i % 100).append(".setting").append(i).append(" = value-").append(i % 1000).append('\n');
+        }
+        propertiesFile = file.toString().getBytes(StandardCharsets.ISO_8859_1);
+        StringBuilder longValues = new StringBuilder();
+        for(int i = 0; i < numberOfKeys; i++)
+        {
+            longValues.append("service.module").append(i % 100).append(".setting").append(i).append(" = ");
+            longValues.append("x".repeat(200)).append(i).append('\n');
+        }
+        longValuesFile = longValues.toString().getBytes(StandardCharsets.ISO_8859_1);
+        mappedFile = Files.createTempFile("orion-configuration-benchmark", ".properties");
+        Files.write(mappedFile, longValuesFile);
+        sourceFiles = new byte[NumberOfSources][];
+        for(int source = 0; source < NumberOfSources; source++)
+        {
+            StringBuilder sourceFile = new StringBuilder();
+            for(int i = source; i < numberOfKeys; i += NumberOfSources)
+            {
+                sourceFile.append("# property ").append(i).append('\n');
+                sourceFile.append("service.module").append(i % 100).append(".setting").append(i).append(" = value-").append(i % 1000).append('\n');
+            }
+            sourceFiles[source] = sourceFile.toString().getBytes(StandardCharsets.ISO_8859_1);
+        }
+        registry = ConfigurationRegistry.of();
+        for(int i = 0; i < numberOfKeys; i++)
+        {
+            InMemoryConfigurationService.registerProp("benchmark.key." + i, Integer.toString(i));
+        }
+    }
+
+
+    @Benchmark
+    public ConfigurationRegistry loadPropsFromInputStream() throws ResourceException
+    {
+        registry.loadProps(new ByteArrayInputStream(propertiesFile));
+        return registry;
+    }
+
+
+    @Benchmark
+    public Properties parseWithPropertiesLoad() throws IOException
+    {
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(propertiesFile));
+        return properties;
+    }
+
+
+    @Benchmark
+    public Map<String, String> parseWithPropertiesParser() throws ResourceException
+    {
+        Map<String, String> properties = new HashMap<>();
+        PropertiesParser.of().parse(new ByteArrayInputStream(propertiesFile), properties::put);
+        return properties;
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(mappedFile);
+    }
+
+
+    private static ConfigurationRegistry newRegistryWithoutReverseIndex(boolean lazyDecodedValues)
+    {
+        return ConfigurationRegistry.of(ConfigurationRegistryOptions.builder()
+                        .reverseIndexEnabled(false)
+                        .lazyDecodedValuesEnabled(lazyDecodedValues)
+                        .build());
+    }
+
+
+    @Benchmark
+    public ConfigurationRegistry loadStreamIntoNewRegistry() throws ResourceException
+    {
+        ConfigurationRegistry newRegistry = newRegistryWithoutReverseIndex(false);
+        newRegistry.loadProps(new ByteArrayInputStream(longValuesFile));
+        return newRegistry;
+    }
+
+
+    @Benchmark
+    public ConfigurationRegistry loadMappedFileIntoNewRegistry() throws ResourceException
+    {
+        ConfigurationRegistry newRegistry = newRegistryWithoutReverseIndex(false);
+        newRegistry.loadProps(mappedFile);
+        return newRegistry;
+    }
+
+
+    @Benchmark
+    public ConfigurationRegistry loadMappedFileWithLazyValuesIntoNewRegistry() throws ResourceException
+    {
+        ConfigurationRegistry newRegistry = newRegistryWithoutReverseIndex(true);
+        newRegistry.loadProps(mappedFile);
+        return newRegistry;
+    }
+
+
+    @Benchmark
+    public ConfigurationRegistry loadSourcesOneByOne() throws ResourceException
+    {
+        for(byte[] sourceFile : sourceFiles)
+        {
+            registry.loadProps(new ByteArrayInputStream(sourceFile));
+        }
+        return registry;
+    }
+
+
+    @Benchmark
+    public ConfigurationRegistry loadAll() throws ResourceException
+    {
+        List<ConfigurationSource> sources = new ArrayList<>(NumberOfSources);
+        for(byte[] sourceFile : sourceFiles)
+        {
+            sources.add(() ->
+            {
+                Map<String, String> properties = new HashMap<>();
+                PropertiesParser.of().parse(new ByteArrayInputStream(sourceFile), properties::put);
+                return properties;
+            });
+        }
+        registry.loadAll(sources);
+        return registry;
+    }
+
+
+    @Benchmark
+    public Map<String, String> getPropsAsMap()
+    {
+        return InMemoryConfigurationService.getPropsAsMap();
+    }
+
+
+    @Benchmark
+    public ConfigurationRegistry snapshot()
+    {
+        return InMemoryConfigurationService.snapshot();
+    }
+
+
+    @Benchmark
+    public void forEachProp(Blackhole blackhole)
+    {
+        InMemoryConfigurationService.forEachProp((key, value) -> blackhole.consume(value));
+    }
+
+
+    @Benchmark
+    public void iterateAsMap(Blackhole blackhole)
+    {
+        for(Map.Entry<String, String> entry : InMemoryConfigurationService.asMap().entrySet())
+        {
+            blackhole.consume(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import io.github.orionlibs.orion_configuration.IntPropertyHandle;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * typed reads, handle reads and reverse lookups running while other threads update single keys
+ * and reload batches of keys
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConfigurationReadWriteMixBenchmark
+{
+    private static final int NumberOfKeys = 4096;
+    private ConfigurationRegistry registry;
+    private IntPropertyHandle handle;
+    private String[] keys;
+    private Properties reloadBatch;
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        registry = ConfigurationRegistry.of();
+        keys = new String[NumberOfKeys];
+        reloadBatch = new Properties();
+        for(int i = 0; i < NumberOfKeys; i++)
+        {
+            keys[i] = "benchmark.key." + i;
+            registry.registerProp(keys[i], Integer.toString(i));
+            if(i % 16 == 0)
+            {
+                reloadBatch.setProperty(keys[i], Integer.toString(i + 1));
+            }
+        }
+        handle = registry.intHandle(keys[0], -1);
+    }
+
+
+    private String randomKey()
+    {
+        return keys[ThreadLocalRandom.current().nextInt(NumberOfKeys)];
+    }
+
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(6)
+    public int typedReads()
+    {
+        return registry.getInt(randomKey(), -1);
+    }
+
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(1)
+    public int handleReads()
+    {
+        return handle.get();
+    }
+
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(1)
+    public String reverseLookups()
+    {
+        return registry.getKeyFromValue(Integer.toString(ThreadLocalRandom.current().nextInt(NumberOfKeys)));
+    }
+
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(1)
+    public void singleKeyUpdates()
+    {
+        String key = randomKey();
+        registry.updateProp(key, registry.getProp(key));
+    }
+
+
+    @Benchmark
+    @Group("mix")
+    @GroupThreads(1)
+    public void batchReloads()
+    {
+        registry.loadProps(reloadBatch);
+    }
+}
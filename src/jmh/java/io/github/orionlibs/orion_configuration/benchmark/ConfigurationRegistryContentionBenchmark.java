@@ -0,0 +1,109 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * read throughput of a shared registry at 1, 8 and 64 reader threads,
+ * plus a mixed group where readers run next to a single writer
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigurationRegistryContentionBenchmark
+{
+    private static final int NumberOfKeys = 1024;
+    private ConfigurationRegistry registry;
+    private String[] keys;
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        registry = ConfigurationRegistry.of();
+        keys = new String[NumberOfKeys];
+        for(int i = 0; i < NumberOfKeys; i++)
+        {
+            keys[i] = "benchmark.key." + i;
+            registry.registerProp(keys[i], Integer.toString(i));
+        }
+    }
+
+
+    private String randomKey()
+    {
+        return keys[ThreadLocalRandom.current().nextInt(NumberOfKeys)];
+    }
+
+
+    private void readMix(Blackhole blackhole)
+    {
+        String key = randomKey();
+        blackhole.consume(registry.getProp(key));
+        blackhole.consume(registry.getIntegerProp(key));
+        blackhole.consume(registry.getObjectProp(key));
+        blackhole.consume(registry.doesPropExist(key));
+    }
+
+
+    @Benchmark
+    @Threads(1)
+    public void reads1Thread(Blackhole blackhole)
+    {
+        readMix(blackhole);
+    }
+
+
+    @Benchmark
+    @Threads(8)
+    public void reads8Threads(Blackhole blackhole)
+    {
+        readMix(blackhole);
+    }
+
+
+    @Benchmark
+    @Threads(64)
+    public void reads64Threads(Blackhole blackhole)
+    {
+        readMix(blackhole);
+    }
+
+
+    @Benchmark
+    @Group("readsWithWriter")
+    @GroupThreads(7)
+    public void readsNextToWriter(Blackhole blackhole)
+    {
+        readMix(blackhole);
+    }
+
+
+    @Benchmark
+    @Group("readsWithWriter")
+    @GroupThreads(1)
+    public void writer()
+    {
+        String key = randomKey();
+        registry.updateProp(key, registry.getProp(key));
+    }
+}
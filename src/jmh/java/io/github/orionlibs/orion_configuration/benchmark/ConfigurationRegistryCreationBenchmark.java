@@ -0,0 +1,55 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import io.github.orionlibs.orion_configuration.ConfigurationRegistryOptions;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * creating a registry with each SystemPropertiesMode, e.g. one per test or per tenant,
+ * and reading a system property from a new registry
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigurationRegistryCreationBenchmark
+{
+    @Param({"Copied", "Fallback", "Skipped"})
+    private ConfigurationRegistryOptions.SystemPropertiesMode systemPropertiesMode;
+    private ConfigurationRegistryOptions options;
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        options = ConfigurationRegistryOptions.builder().systemPropertiesMode(systemPropertiesMode).build();
+    }
+
+
+    @Benchmark
+    public ConfigurationRegistry newRegistry()
+    {
+        return new ConfigurationRegistry(options);
+    }
+
+
+    @Benchmark
+    public String newRegistryAndGetSystemProperty()
+    {
+        return new ConfigurationRegistry(options).getProp("java.version");
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import io.github.orionlibs.orion_configuration.ConfigurationRegistryOptions;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * single-threaded cost of the registry's read paths on registries of different sizes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigurationRegistryReadBenchmark
+{
+    @Param({"1000", "50000"})
+    private int numberOfKeys;
+    @Param({"true", "false"})
+    private boolean reverseIndexEnabled;
+    private ConfigurationRegistry registry;
+    private String key;
+    private String value;
+    private List<String> placeholders;
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        registry = ConfigurationRegistry.of(ConfigurationRegistryOptions.builder()
+                        .reverseIndexEnabled(reverseIndexEnabled)
+                        .build());
+        for(int i = 0; i < numberOfKeys; i++)
+        {
+            registry.registerProp("benchmark.key." + i, Integer.toString(i));
+        }
+        key = "benchmark.key." + (numberOfKeys / 2);
+        value = Integer.toString(numberOfKeys / 2);
+        registry.registerProp("benchmark.message", "user {0} requested {1} with id {2}");
+        placeholders = List.of("alice", "/orders", "42");
+        for(String poolKey : List.of("size", "timeout", "max", "min"))
+        {
+            registry.registerProp("benchmark.pool." + poolKey, "1");
+        }
+    }
+
+
+    @Benchmark
+    public String getProp()
+    {
+        return registry.getProp(key);
+    }
+
+
+    @Benchmark
+    public Integer getIntegerProp()
+    {
+        return registry.getIntegerProp(key);
+    }
+
+
+    @Benchmark
+    public Object getObjectProp()
+    {
+        return registry.getObjectProp(key);
+    }
+
+
+    @Benchmark
+    public String getPropWithPlaceholders()
+    {
+        return registry.getPropWithPlaceholders("benchmark.message", placeholders);
+    }
+
+
+    @Benchmark
+    public String getPropWithPlaceholdersVarargs()
+    {
+        return registry.getPropWithPlaceholderValues("benchmark.message", "alice", "/orders", "42");
+    }
+
+
+    @Benchmark
+    public String getKeyFromValue()
+    {
+        return registry.getKeyFromValue(value);
+    }
+
+
+    @Benchmark
+    public List<String> getKeysFromValue()
+    {
+        return registry.getKeysFromValue(value);
+    }
+
+
+    @Benchmark
+    public boolean doesValueExist()
+    {
+        return registry.doesValueExist(value);
+    }
+
+
+    @Benchmark
+    public Map<String, String> getPropsWithPrefix()
+    {
+        return registry.getPropsWithPrefix("benchmark.pool.");
+    }
+}
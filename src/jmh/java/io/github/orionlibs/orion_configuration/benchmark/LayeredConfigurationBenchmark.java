@@ -0,0 +1,89 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.ConfigurationLayer;
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import io.github.orionlibs.orion_configuration.LayeredConfiguration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * reads of keys defined in every layer, and writes to the layer that wins a key
+ * against writes to a layer that a higher one hides
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LayeredConfigurationBenchmark
+{
+    @Param({"100000"})
+    private int numberOfKeys;
+    private LayeredConfiguration configuration;
+    private ConfigurationRegistry registry;
+    private String[] keys;
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        configuration = LayeredConfiguration.of();
+        registry = configuration.getRegistry();
+        keys = new String[numberOfKeys];
+        for(int i = 0; i < numberOfKeys; i++)
+        {
+            keys[i] = "benchmark.layered." + i;
+        }
+        for(ConfigurationLayer layer : new ConfigurationLayer[] {ConfigurationLayer.Defaults, ConfigurationLayer.Files, ConfigurationLayer.Environment})
+        {
+            Map<String, Object> properties = new HashMap<>();
+            for(String key : keys)
+            {
+                properties.put(key, layer.name());
+            }
+            configuration.loadProps(layer, properties);
+        }
+    }
+
+
+    private String randomKey()
+    {
+        return keys[ThreadLocalRandom.current().nextInt(numberOfKeys)];
+    }
+
+
+    @Benchmark
+    public String getProp()
+    {
+        return registry.getProp(randomKey());
+    }
+
+
+    @Benchmark
+    public void setWinningLayerProp()
+    {
+        configuration.setProp(ConfigurationLayer.Environment, randomKey(), Integer.toString(ThreadLocalRandom.current().nextInt(1000)));
+    }
+
+
+    @Benchmark
+    public void setHiddenLayerProp()
+    {
+        configuration.setProp(ConfigurationLayer.Defaults, randomKey(), Integer.toString(ThreadLocalRandom.current().nextInt(1000)));
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.InMemoryConfigurationService;
+import io.github.orionlibs.orion_configuration.annotations.prop.Prop;
+import io.github.orionlibs.orion_configuration.annotations.prop.PropertyDependencyInjectorService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * updateProp on a key bound to a single object, while numberOfBoundObjects other objects
+ * are bound to other keys; the cost should not grow with numberOfBoundObjects
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LiveReinjectionBenchmark
+{
+    @Param({"0", "10000", "100000"})
+    private int numberOfBoundObjects;
+    private PropertyDependencyInjectorService injector;
+    private List<Object> boundObjects;
+    private AffectedBean affectedBean;
+    private int counter;
+
+
+    public static class AffectedBean
+    {
+        @Prop(key = "benchmark.live.affected")
+        private int value;
+    }
+
+
+    public static class UnaffectedBean
+    {
+        @Prop(key = "benchmark.live.unaffected")
+        private String value;
+        @Prop(key = "benchmark.live.timeout")
+        private long timeout;
+    }
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        injector = new PropertyDependencyInjectorService();
+        InMemoryConfigurationService.registerProp("benchmark.live.affected", "0");
+        InMemoryConfigurationService.registerProp("benchmark.live.unaffected", "value");
+        InMemoryConfigurationService.registerProp("benchmark.live.timeout", "30");
+        boundObjects = new ArrayList<>();
+        for(int i = 0; i < numberOfBoundObjects; i++)
+        {
+            UnaffectedBean bean = new UnaffectedBean();
+            injector.bindToFields(bean);
+            boundObjects.add(bean);
+        }
+        affectedBean = new AffectedBean();
+        injector.bindToFields(affectedBean);
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        boundObjects.forEach(injector::unbind);
+        injector.unbind(affectedBean);
+    }
+
+
+    @Benchmark
+    public int updateBoundProperty()
+    {
+        InMemoryConfigurationService.updateProp("benchmark.live.affected", (counter++ & 1) == 0 ? "1" : "2");
+        return affectedBean.value;
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * primitive getters next to their boxed counterparts.
+ * Run with -prof gc: gc.alloc.rate.norm is the number of bytes allocated per call
+ * and should be ~0 for every primitive getter, including the malformed-value case.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveGettersBenchmark
+{
+    private ConfigurationRegistry registry;
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        registry = ConfigurationRegistry.of();
+        //outside the Integer/Long caches, so boxing would allocate
+        registry.registerProp("benchmark.int", "100000");
+        registry.registerProp("benchmark.long", "10000000000");
+        registry.registerProp("benchmark.double", "1234.5678");
+        registry.registerProp("benchmark.boolean", "true");
+        registry.registerProp("benchmark.malformed", "not-a-number");
+    }
+
+
+    @Benchmark
+    public int getInt()
+    {
+        return registry.getInt("benchmark.int", 0);
+    }
+
+
+    @Benchmark
+    public long getLong()
+    {
+        return registry.getLong("benchmark.long", 0L);
+    }
+
+
+    @Benchmark
+    public double getDouble()
+    {
+        return registry.getDouble("benchmark.double", 0.0d);
+    }
+
+
+    @Benchmark
+    public boolean getBool()
+    {
+        return registry.getBool("benchmark.boolean", false);
+    }
+
+
+    @Benchmark
+    public int getIntFromMalformedValue()
+    {
+        return registry.getInt("benchmark.malformed", -1);
+    }
+
+
+    @Benchmark
+    public Integer getIntegerProp()
+    {
+        return registry.getIntegerProp("benchmark.int");
+    }
+
+
+    @Benchmark
+    public Double getDoubleProp()
+    {
+        return registry.getDoubleProp("benchmark.double");
+    }
+}
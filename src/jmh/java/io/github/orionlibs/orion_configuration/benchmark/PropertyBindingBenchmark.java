@@ -0,0 +1,68 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import io.github.orionlibs.orion_configuration.InvalidConfigurationPropertyException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ConfigurationRegistry.bind of a record against the hand-written typed getter calls it replaces
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyBindingBenchmark
+{
+    private ConfigurationRegistry registry;
+
+
+    public record PoolConfig(String url, int maxSize, int minIdle, long timeoutMillis, boolean enabled)
+    {
+    }
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        registry = ConfigurationRegistry.of();
+        registry.update(batch ->
+        {
+            batch.registerProp("benchmark.pool.url", "jdbc:postgresql://localhost/benchmark");
+            batch.registerProp("benchmark.pool.max.size", "32");
+            batch.registerProp("benchmark.pool.min.idle", "4");
+            batch.registerProp("benchmark.pool.timeout.millis", "30000");
+            batch.registerProp("benchmark.pool.enabled", "true");
+        });
+    }
+
+
+    @Benchmark
+    public PoolConfig bind() throws InvalidConfigurationPropertyException
+    {
+        return registry.bind("benchmark.pool", PoolConfig.class);
+    }
+
+
+    @Benchmark
+    public PoolConfig typedGetters()
+    {
+        return new PoolConfig(registry.getProp("benchmark.pool.url"),
+                        registry.getIntegerProp("benchmark.pool.max.size", 0),
+                        registry.getIntegerProp("benchmark.pool.min.idle", 0),
+                        registry.getLongProp("benchmark.pool.timeout.millis", 0L),
+                        registry.getBooleanProp("benchmark.pool.enabled", false));
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.InMemoryConfigurationService;
+import io.github.orionlibs.orion_configuration.annotations.prop.Prop;
+import io.github.orionlibs.orion_configuration.annotations.prop.PropertyDependencyInjectorService;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @Prop injection into a new, short-lived object per call
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyInjectionBenchmark
+{
+    private PropertyDependencyInjectorService injector;
+
+
+    public static class RequestScopedBean
+    {
+        @Prop(key = "benchmark.service.url")
+        private String serviceUrl;
+        @Prop(key = "benchmark.service.user")
+        private String serviceUser;
+        private String region;
+        private String unrelated;
+
+
+        @Prop(key = "benchmark.service.region")
+        public void setRegion(String region)
+        {
+            this.region = region;
+        }
+
+
+        public String describe()
+        {
+            return serviceUrl + serviceUser + region + unrelated;
+        }
+    }
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        injector = new PropertyDependencyInjectorService();
+        InMemoryConfigurationService.registerProp("benchmark.service.url", "https://localhost:8080");
+        InMemoryConfigurationService.registerProp("benchmark.service.user", "benchmark");
+        InMemoryConfigurationService.registerProp("benchmark.service.region", "eu-west-1");
+    }
+
+
+    @Benchmark
+    public RequestScopedBean injectToFieldsAndMethods() throws InvocationTargetException
+    {
+        RequestScopedBean bean = new RequestScopedBean();
+        injector.injectToFieldsAndMethods(bean);
+        return bean;
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.ConfigurationRegistry;
+import io.github.orionlibs.orion_configuration.ConfigurationRegistryOptions;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * reads of values with ${key} references against reads of literal values, and writes of a key
+ * that other values refer to against writes of a key that nothing refers to, in a registry
+ * where every service has a url made of its own host and port
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertyReferencesBenchmark
+{
+    @Param({"10000"})
+    private int numberOfServices;
+    private ConfigurationRegistry registry;
+    private String[] urlKeys;
+    private String[] hostKeys;
+    private String[] literalKeys;
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        registry = ConfigurationRegistry.of(ConfigurationRegistryOptions.builder()
+                        .propertyReferencesEnabled(true)
+                        .systemPropertiesMode(ConfigurationRegistryOptions.SystemPropertiesMode.Skipped)
+                        .build());
+        urlKeys = new String[numberOfServices];
+        hostKeys = new String[numberOfServices];
+        literalKeys = new String[numberOfServices];
+        registry.update(batch ->
+        {
+            for(int i = 0; i < numberOfServices; i++)
+            {
+                String service = "benchmark.service" + i;
+                urlKeys[i] = service + ".url";
+                hostKeys[i] = service + ".host";
+                literalKeys[i] = service + ".name";
+                batch.registerProp(urlKeys[i], "http://${" + hostKeys[i] + "}:${" + service + ".port}/${" + literalKeys[i] + "}");
+                batch.registerProp(hostKeys[i], "host" + i);
+                batch.registerProp(service + ".port", Integer.toString(8000 + i));
+                batch.registerProp(literalKeys[i], "service" + i);
+            }
+        });
+    }
+
+
+    private int randomService()
+    {
+        return ThreadLocalRandom.current().nextInt(numberOfServices);
+    }
+
+
+    @Benchmark
+    public String getResolvedProp()
+    {
+        return registry.getProp(urlKeys[randomService()]);
+    }
+
+
+    @Benchmark
+    public String getLiteralProp()
+    {
+        return registry.getProp(literalKeys[randomService()]);
+    }
+
+
+    @Benchmark
+    public void updateReferencedProp()
+    {
+        registry.updateProp(hostKeys[randomService()], "host" + ThreadLocalRandom.current().nextInt(1000));
+    }
+
+
+    @Benchmark
+    public void updateUnreferencedProp()
+    {
+        registry.updateProp("benchmark.unreferenced" + randomService(), "value" + ThreadLocalRandom.current().nextInt(1000));
+    }
+}
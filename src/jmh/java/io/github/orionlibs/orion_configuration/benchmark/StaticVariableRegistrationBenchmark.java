@@ -0,0 +1,75 @@
+package io.github.orionlibs.orion_configuration.benchmark;
+
+import io.github.orionlibs.orion_configuration.InMemoryConfigurationService;
+import io.github.orionlibs.orion_configuration.tasks.ProcessStaticVariableNameWithCamelCaseTask;
+import io.github.orionlibs.orion_configuration.tasks.ProcessStaticVariableNameWithUnderscoresTask;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * static variable name to key conversion, and registering thousands of constants at once
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StaticVariableRegistrationBenchmark
+{
+    private static final int NumberOfConstants = 5000;
+    private final StringBuilder key = new StringBuilder();
+    private Map<String, Object> constants;
+
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        constants = new HashMap<>();
+        for(int i = 0; i < NumberOfConstants; i++)
+        {
+            constants.put("benchmark.constant." + i, i);
+        }
+    }
+
+
+    @Benchmark
+    public StringBuilder underscoresName()
+    {
+        key.setLength(0);
+        ProcessStaticVariableNameWithUnderscoresTask.run("HTTP_CLIENT_CONNECT_TIMEOUT", key);
+        return key;
+    }
+
+
+    @Benchmark
+    public StringBuilder camelCaseName()
+    {
+        key.setLength(0);
+        ProcessStaticVariableNameWithCamelCaseTask.run("httpClientConnectTimeout", key);
+        return key;
+    }
+
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 20)
+    @Measurement(iterations = 20)
+    public void registerClassStaticVariables()
+    {
+        InMemoryConfigurationService.registerClassStaticVariables(constants);
+    }
+}
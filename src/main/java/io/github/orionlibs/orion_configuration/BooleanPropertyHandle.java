@@ -0,0 +1,38 @@
+package io.github.orionlibs.orion_configuration;
+
+/**
+ * a boolean property that falls back to its default value when the key is missing
+ */
+public final class BooleanPropertyHandle extends PropertyHandle
+{
+    private final boolean defaultValue;
+    private volatile boolean value;
+
+
+    BooleanPropertyHandle(String key, boolean defaultValue)
+    {
+        super(key, defaultValue);
+        this.defaultValue = defaultValue;
+        this.value = defaultValue;
+    }
+
+
+    public boolean get()
+    {
+        return value;
+    }
+
+
+    public boolean getDefaultValue()
+    {
+        return defaultValue;
+    }
+
+
+    @Override
+    void refresh(PropertyValue propertyValue)
+    {
+        Boolean parsedValue = (propertyValue != null) ? propertyValue.getParsedValue(PropertyValueParsers.BooleanValue) : null;
+        value = (parsedValue != null) ? parsedValue : defaultValue;
+    }
+}
@@ -0,0 +1,766 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * a PropertyStore for very large registries. Most properties live in an immutable open-addressing Table
+ * that keeps every key as UTF-8 bytes in one shared array, with the part of the key before its last dot
+ * stored once for all the keys that share it, so a key becomes a String only when it is iterated.
+ * Equal short values that are stored between two folds share one PropertyValue, and with it what the typed getters parsed from it.
+ * Writes go to a concurrent overlay, which is folded into a new Table once it outgrows a sixteenth of the current one,
+ * or after a batch that leaves it larger than a sixty-fourth of it. A fold keeps only the prefixes that keys still use.
+ * Keys with a lone surrogate after their last dot, which UTF-8 cannot encode, stay in the overlay.
+ * Prefix queries scan the keys instead of keeping a sorted index of them.
+ */
+final class CompactPropertyMap extends AbstractMap<String, PropertyValue> implements PropertyStore
+{
+    private static final int MinimumFoldSize = 1024;
+    private static final int InternedValueSlots = 4096;
+    private static final int MaximumInternedStringLength = 64;
+    /**
+     * marks a key of the Table as removed in the overlay
+     */
+    private static final PropertyValue Removed = new PropertyValue(null);
+    /**
+     * replaced as a whole when the overlay is folded, so readers never see the overlay of one Table with another
+     */
+    private volatile Generation generation;
+    private volatile int size;
+    private volatile boolean shared;
+    /**
+     * the values stored since the last fold, by hash; shared with the copies of this map
+     */
+    private final PropertyValue[] internedValues;
+
+
+    CompactPropertyMap()
+    {
+        this.generation = new Generation(Table.Empty, new ConcurrentHashMap<>(), 0);
+        this.internedValues = new PropertyValue[InternedValueSlots];
+    }
+
+
+    private CompactPropertyMap(CompactPropertyMap properties)
+    {
+        Generation generationToCopy = properties.generation;
+        this.generation = new Generation(generationToCopy.table, new ConcurrentHashMap<>(generationToCopy.overlay), generationToCopy.unencodableKeys);
+        this.size = properties.size;
+        this.internedValues = properties.internedValues;
+    }
+
+
+    @Override
+    public PropertyValue get(Object key)
+    {
+        if(!(key instanceof String))
+        {
+            return null;
+        }
+        Generation current = generation;
+        PropertyValue value = current.overlay.get(key);
+        if(value != null)
+        {
+            return (value != Removed) ? value : null;
+        }
+        return current.table.get((String)key);
+    }
+
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return get(key) != null;
+    }
+
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+
+    @Override
+    public PropertyValue putValue(String key, PropertyValue value)
+    {
+        PropertyValue previousValue = get(key);
+        generation.overlay.put(key, intern(value));
+        if(previousValue == null)
+        {
+            size++;
+        }
+        foldIfLarge();
+        return previousValue;
+    }
+
+
+    @Override
+    public PropertyValue removeValue(String key)
+    {
+        PropertyValue previousValue = get(key);
+        if(previousValue != null)
+        {
+            Generation current = generation;
+            if(current.table.indexOf(key) >= 0)
+            {
+                current.overlay.put(key, Removed);
+            }
+            else
+            {
+                current.overlay.remove(key);
+            }
+            size--;
+            foldIfLarge();
+        }
+        return previousValue;
+    }
+
+
+    /**
+     * only short strings and boxed primitives are shared, since other values may be expensive to hash or to keep
+     */
+    private PropertyValue intern(PropertyValue value)
+    {
+        Object rawValue = value.getValue();
+        if(rawValue instanceof String ? ((String)rawValue).length() > MaximumInternedStringLength
+                        : !(rawValue instanceof Number || rawValue instanceof Boolean || rawValue instanceof Character))
+        {
+            return value;
+        }
+        int hash = rawValue.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (InternedValueSlots - 1);
+        PropertyValue internedValue = internedValues[slot];
+        if(internedValue != null && internedValue.holdsSameValue(value))
+        {
+            return internedValue;
+        }
+        internedValues[slot] = value;
+        return value;
+    }
+
+
+    private void foldIfLarge()
+    {
+        Generation current = generation;
+        if(current.overlay.size() - current.unencodableKeys > Math.max(MinimumFoldSize, current.table.size() / 16))
+        {
+            fold(current);
+        }
+    }
+
+
+    /**
+     * a batch is published as a copy anyway, so folding what it left in the overlay costs readers nothing
+     */
+    @Override
+    public void batchWritten()
+    {
+        Generation current = generation;
+        if(current.overlay.size() - current.unencodableKeys > current.table.size() / 64)
+        {
+            fold(current);
+        }
+    }
+
+
+    /**
+     * also forgets the interned values, so that values no key holds any more can be collected
+     */
+    private void fold(Generation current)
+    {
+        ConcurrentHashMap<String, PropertyValue> nextOverlay = new ConcurrentHashMap<>();
+        Table table = current.table.fold(current.overlay, nextOverlay);
+        generation = new Generation(table, nextOverlay, nextOverlay.size());
+        Arrays.fill(internedValues, null);
+    }
+
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super PropertyValue> action)
+    {
+        Generation current = generation;
+        for(int slot = 0; slot < current.table.numberOfSlots(); slot++)
+        {
+            if(current.table.values[slot] != null)
+            {
+                String key = current.table.keyAt(slot);
+                if(!current.overlay.containsKey(key))
+                {
+                    action.accept(key, current.table.values[slot]);
+                }
+            }
+        }
+        current.overlay.forEach((key, value) ->
+        {
+            if(value != Removed)
+            {
+                action.accept(key, value);
+            }
+        });
+    }
+
+
+    @Override
+    public Set<Map.Entry<String, PropertyValue>> entrySet()
+    {
+        return new AbstractSet<>()
+        {
+            @Override
+            public Iterator<Map.Entry<String, PropertyValue>> iterator()
+            {
+                Generation current = generation;
+                Stream<Map.Entry<String, PropertyValue>> tableEntries = IntStream.range(0, current.table.numberOfSlots())
+                                .filter(slot -> current.table.values[slot] != null)
+                                .mapToObj(slot -> Map.entry(current.table.keyAt(slot), current.table.values[slot]))
+                                .filter(entry -> !current.overlay.containsKey(entry.getKey()));
+                Stream<Map.Entry<String, PropertyValue>> overlayEntries = current.overlay.entrySet().stream()
+                                .filter(entry -> entry.getValue() != Removed);
+                return Stream.concat(tableEntries, overlayEntries).iterator();
+            }
+
+
+            @Override
+            public int size()
+            {
+                return CompactPropertyMap.this.size();
+            }
+        };
+    }
+
+
+    /**
+     * visits the keys that start with the prefix, in order, in O(n + number of keys visited * log of that number)
+     */
+    @Override
+    public void forEachKeyWithPrefix(String prefix, Consumer<String> action)
+    {
+        Generation current = generation;
+        List<String> keys = new ArrayList<>();
+        current.table.forEachKeyWithPrefix(prefix, key ->
+        {
+            if(!current.overlay.containsKey(key))
+            {
+                keys.add(key);
+            }
+        });
+        current.overlay.forEach((key, value) ->
+        {
+            if(value != Removed && key.startsWith(prefix))
+            {
+                keys.add(key);
+            }
+        });
+        keys.sort(null);
+        keys.forEach(action);
+    }
+
+
+    @Override
+    public boolean isShared()
+    {
+        return shared;
+    }
+
+
+    @Override
+    public void markShared()
+    {
+        shared = true;
+    }
+
+
+    @Override
+    public PropertyStore copy()
+    {
+        return new CompactPropertyMap(this);
+    }
+
+
+    private static final class Generation
+    {
+        private final Table table;
+        /**
+         * the values written since the Table was built, or Removed for keys of the Table that were removed
+         */
+        private final ConcurrentHashMap<String, PropertyValue> overlay;
+        /**
+         * how many keys of the overlay the Table could not take when it was built. Removing one of them
+         * does not update it, which only delays the next fold.
+         */
+        private final int unencodableKeys;
+
+
+        private Generation(Table table, ConcurrentHashMap<String, PropertyValue> overlay, int unencodableKeys)
+        {
+            this.table = table;
+            this.overlay = overlay;
+            this.unencodableKeys = unencodableKeys;
+        }
+    }
+
+
+    /**
+     * an open-addressing table probed linearly from a Fibonacci hash of the key, since similar keys have close String hashes.
+     * The keys are laid out in keyBytes in slot order, each as a varint index into prefixes, for the part
+     * of the key before its last dot, or 0 if it has none, followed by the UTF-8 bytes of the rest of the key.
+     * The rest of a key has no lone surrogates, so its bytes are the key's alone.
+     * slots holds the hash of each key in its high half and where the key starts in keyBytes in its low half,
+     * so a free slot is one whose key ends where it starts, and a probe reads one array.
+     */
+    private static final class Table
+    {
+        private static final Table Empty = new Table(new String[] {null}, new byte[0], new long[2], new PropertyValue[1], 0);
+        private static final byte AllKeysMatch = 1;
+        private static final byte NoKeysMatch = 2;
+        private static final byte SomeKeysMatch = 3;
+        private final String[] prefixes;
+        private final byte[] keyBytes;
+        /**
+         * one more than there are slots, for where the key of the last slot ends
+         */
+        private final long[] slots;
+        /**
+         * null for free slots
+         */
+        private final PropertyValue[] values;
+        private final int size;
+
+
+        private Table(String[] prefixes, byte[] keyBytes, long[] slots, PropertyValue[] values, int size)
+        {
+            this.prefixes = prefixes;
+            this.keyBytes = keyBytes;
+            this.slots = slots;
+            this.values = values;
+            this.size = size;
+        }
+
+
+        private int size()
+        {
+            return size;
+        }
+
+
+        private int numberOfSlots()
+        {
+            return values.length;
+        }
+
+
+        private static int slotOf(int hash, int numberOfSlots)
+        {
+            return (int)(((hash * 0x9E3779B9) & 0xFFFFFFFFL) * numberOfSlots >>> 32);
+        }
+
+
+        private int nextSlot(int slot)
+        {
+            return (slot + 1 < values.length) ? slot + 1 : 0;
+        }
+
+
+        private int keyStart(int slot)
+        {
+            return (int)slots[slot];
+        }
+
+
+        private int keyEnd(int slot)
+        {
+            return (int)slots[slot + 1];
+        }
+
+
+        /**
+         * @return the value of the key, or null if the table does not have it. It creates no objects for ASCII keys.
+         */
+        private PropertyValue get(String key)
+        {
+            int hash = key.hashCode();
+            for(int slot = slotOf(hash, values.length); ; slot = nextSlot(slot))
+            {
+                long hashAndStart = slots[slot];
+                int end = (int)slots[slot + 1];
+                if((int)hashAndStart == end)
+                {
+                    return null;
+                }
+                else if((int)(hashAndStart >>> 32) == hash)
+                {
+                    //loaded before the key is compared, so that both are fetched from memory at once
+                    PropertyValue value = values[slot];
+                    if(keyEquals((int)hashAndStart, end, key))
+                    {
+                        return value;
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * @return the slot of the key, or -1 if the table does not have it
+         */
+        private int indexOf(String key)
+        {
+            int hash = key.hashCode();
+            for(int slot = slotOf(hash, values.length); ; slot = nextSlot(slot))
+            {
+                long hashAndStart = slots[slot];
+                int end = (int)slots[slot + 1];
+                if((int)hashAndStart == end)
+                {
+                    return -1;
+                }
+                else if((int)(hashAndStart >>> 32) == hash && keyEquals((int)hashAndStart, end, key))
+                {
+                    return slot;
+                }
+            }
+        }
+
+
+        private boolean keyEquals(int offset, int end, String key)
+        {
+            int prefixId = 0;
+            int shift = 0;
+            byte b;
+            do
+            {
+                b = keyBytes[offset++];
+                prefixId |= (b & 0x7f) << shift;
+                shift += 7;
+            }
+            while(b < 0);
+            String prefix = prefixes[prefixId];
+            int restStart = 0;
+            if(prefix != null)
+            {
+                if(key.length() <= prefix.length() || key.charAt(prefix.length()) != '.' || !key.startsWith(prefix))
+                {
+                    return false;
+                }
+                restStart = prefix.length() + 1;
+            }
+            if(end - offset < key.length() - restStart)
+            {
+                //UTF-8 takes at least one byte per char
+                return false;
+            }
+            for(int i = restStart; i < key.length(); i++)
+            {
+                char c = key.charAt(i);
+                if(c >= 0x80)
+                {
+                    return restEquals(offset, end, key, i);
+                }
+                else if(keyBytes[offset++] != c)
+                {
+                    return false;
+                }
+            }
+            return offset == end;
+        }
+
+
+        private boolean restEquals(int offset, int end, String key, int restStart)
+        {
+            if(!isEncodable(key, restStart))
+            {
+                //no key of the table has a lone surrogate
+                return false;
+            }
+            byte[] rest = key.substring(restStart).getBytes(StandardCharsets.UTF_8);
+            return Arrays.equals(keyBytes, offset, end, rest, 0, rest.length);
+        }
+
+
+        private int prefixIdAt(int slot)
+        {
+            int offset = keyStart(slot);
+            int prefixId = 0;
+            int shift = 0;
+            byte b;
+            do
+            {
+                b = keyBytes[offset++];
+                prefixId |= (b & 0x7f) << shift;
+                shift += 7;
+            }
+            while(b < 0);
+            return prefixId;
+        }
+
+
+        private String keyAt(int slot)
+        {
+            int prefixId = prefixIdAt(slot);
+            int restStart = keyStart(slot) + varintLength(prefixId);
+            String rest = new String(keyBytes, restStart, keyEnd(slot) - restStart, StandardCharsets.UTF_8);
+            String prefix = prefixes[prefixId];
+            return (prefix != null) ? prefix + '.' + rest : rest;
+        }
+
+
+        private static int varintLength(int value)
+        {
+            int length = 1;
+            while((value >>>= 7) != 0)
+            {
+                length++;
+            }
+            return length;
+        }
+
+
+        /**
+         * decides once per prefix whether all, none or some of the keys that share it start with the given prefix
+         */
+        private void forEachKeyWithPrefix(String prefix, Consumer<String> action)
+        {
+            byte[] matches = new byte[prefixes.length];
+            for(int slot = 0; slot < values.length; slot++)
+            {
+                if(values[slot] == null)
+                {
+                    continue;
+                }
+                int prefixId = prefixIdAt(slot);
+                if(matches[prefixId] == 0)
+                {
+                    String keyPrefix = prefixes[prefixId];
+                    if(keyPrefix == null)
+                    {
+                        matches[prefixId] = prefix.isEmpty() ? AllKeysMatch : SomeKeysMatch;
+                    }
+                    else if((keyPrefix + '.').startsWith(prefix))
+                    {
+                        matches[prefixId] = AllKeysMatch;
+                    }
+                    else
+                    {
+                        matches[prefixId] = prefix.startsWith(keyPrefix + '.') ? SomeKeysMatch : NoKeysMatch;
+                    }
+                }
+                if(matches[prefixId] != NoKeysMatch)
+                {
+                    String key = keyAt(slot);
+                    if(matches[prefixId] == AllKeysMatch || key.startsWith(prefix))
+                    {
+                        action.accept(key);
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * @return a new table with the keys of this one that the overlay does not change, and the values of the overlay.
+         * Only the prefixes that keys still use are kept, with new ids, so each key copied from this table gets
+         * its new prefix id in front of the rest of its bytes. Keys that UTF-8 cannot encode are put into unencodableKeys instead.
+         */
+        private Table fold(Map<String, PropertyValue> overlay, Map<String, PropertyValue> unencodableKeys)
+        {
+            BitSet changedSlots = new BitSet(values.length);
+            List<String> addedKeys = new ArrayList<>();
+            List<PropertyValue> addedValues = new ArrayList<>();
+            for(Map.Entry<String, PropertyValue> change : overlay.entrySet())
+            {
+                String key = change.getKey();
+                int slot = indexOf(key);
+                if(slot >= 0)
+                {
+                    changedSlots.set(slot);
+                }
+                if(change.getValue() == Removed)
+                {
+                    continue;
+                }
+                else if(isEncodable(key, key.lastIndexOf('.') + 1))
+                {
+                    addedKeys.add(key);
+                    addedValues.add(change.getValue());
+                }
+                else
+                {
+                    unencodableKeys.put(key, change.getValue());
+                }
+            }
+            //the prefixes of the kept keys get new ids in the order they are met
+            int[] newPrefixIds = new int[prefixes.length];
+            List<String> newPrefixes = new ArrayList<>();
+            newPrefixes.add(null);
+            int keyBytesLength = 0;
+            for(int slot = 0; slot < values.length; slot++)
+            {
+                if(values[slot] != null && !changedSlots.get(slot))
+                {
+                    int prefixId = prefixIdAt(slot);
+                    if(prefixId != 0 && newPrefixIds[prefixId] == 0)
+                    {
+                        newPrefixIds[prefixId] = newPrefixes.size();
+                        newPrefixes.add(prefixes[prefixId]);
+                    }
+                    keyBytesLength += varintLength(newPrefixIds[prefixId]) + keyEnd(slot) - keyStart(slot) - varintLength(prefixId);
+                }
+            }
+            Map<String, Integer> prefixIds = new HashMap<>();
+            for(int prefixId = 1; prefixId < newPrefixes.size(); prefixId++)
+            {
+                prefixIds.put(newPrefixes.get(prefixId), prefixId);
+            }
+            byte[][] addedKeyBytes = new byte[addedKeys.size()][];
+            for(int i = 0; i < addedKeyBytes.length; i++)
+            {
+                addedKeyBytes[i] = encode(addedKeys.get(i), newPrefixes, prefixIds);
+                keyBytesLength += addedKeyBytes[i].length;
+            }
+            int newSize = size - changedSlots.cardinality() + addedKeys.size();
+            //a load factor of 0.75, which leaves at least one slot free
+            int numberOfSlots = newSize + newSize / 3 + 1;
+            long[] newSlots = new long[numberOfSlots + 1];
+            PropertyValue[] newValues = new PropertyValue[numberOfSlots];
+            //the slot of this table + 1, or -(the index of the added key + 1), that each new slot takes its key from
+            int[] keySources = new int[numberOfSlots];
+            for(int slot = 0; slot < values.length; slot++)
+            {
+                if(values[slot] != null && !changedSlots.get(slot))
+                {
+                    int hash = (int)(slots[slot] >>> 32);
+                    int newSlot = freeSlot(hash, newValues);
+                    newSlots[newSlot] = (long)hash << 32;
+                    newValues[newSlot] = values[slot];
+                    keySources[newSlot] = slot + 1;
+                }
+            }
+            for(int i = 0; i < addedKeys.size(); i++)
+            {
+                int hash = addedKeys.get(i).hashCode();
+                int newSlot = freeSlot(hash, newValues);
+                newSlots[newSlot] = (long)hash << 32;
+                newValues[newSlot] = addedValues.get(i);
+                keySources[newSlot] = -(i + 1);
+            }
+            byte[] newKeyBytes = new byte[keyBytesLength];
+            int offset = 0;
+            for(int newSlot = 0; newSlot < numberOfSlots; newSlot++)
+            {
+                newSlots[newSlot] |= offset;
+                int keySource = keySources[newSlot];
+                if(keySource > 0)
+                {
+                    int slot = keySource - 1;
+                    int prefixId = prefixIdAt(slot);
+                    int restStart = keyStart(slot) + varintLength(prefixId);
+                    int restLength = keyEnd(slot) - restStart;
+                    offset = writeVarint(newPrefixIds[prefixId], newKeyBytes, offset);
+                    System.arraycopy(keyBytes, restStart, newKeyBytes, offset, restLength);
+                    offset += restLength;
+                }
+                else if(keySource < 0)
+                {
+                    byte[] encodedKey = addedKeyBytes[-keySource - 1];
+                    System.arraycopy(encodedKey, 0, newKeyBytes, offset, encodedKey.length);
+                    offset += encodedKey.length;
+                }
+            }
+            newSlots[numberOfSlots] = offset;
+            return new Table(newPrefixes.toArray(new String[0]), newKeyBytes, newSlots, newValues, newSize);
+        }
+
+
+        private static int freeSlot(int hash, PropertyValue[] values)
+        {
+            int slot = slotOf(hash, values.length);
+            while(values[slot] != null)
+            {
+                slot = (slot + 1 < values.length) ? slot + 1 : 0;
+            }
+            return slot;
+        }
+
+
+        private static byte[] encode(String key, List<String> prefixes, Map<String, Integer> prefixIds)
+        {
+            int lastDot = key.lastIndexOf('.');
+            int prefixId = 0;
+            if(lastDot >= 0)
+            {
+                String prefix = key.substring(0, lastDot);
+                Integer id = prefixIds.get(prefix);
+                if(id == null)
+                {
+                    id = prefixes.size();
+                    prefixes.add(prefix);
+                    prefixIds.put(prefix, id);
+                }
+                prefixId = id;
+            }
+            byte[] rest = key.substring(lastDot + 1).getBytes(StandardCharsets.UTF_8);
+            byte[] encodedKey = new byte[varintLength(prefixId) + rest.length];
+            int offset = writeVarint(prefixId, encodedKey, 0);
+            System.arraycopy(rest, 0, encodedKey, offset, rest.length);
+            return encodedKey;
+        }
+
+
+        /**
+         * @return the offset after the varint
+         */
+        private static int writeVarint(int value, byte[] bytes, int offset)
+        {
+            do
+            {
+                int b = value & 0x7f;
+                value >>>= 7;
+                bytes[offset++] = (byte)((value != 0) ? (b | 0x80) : b);
+            }
+            while(value != 0);
+            return offset;
+        }
+
+
+        /**
+         * @return whether the chars of the key from start on have no lone surrogates, which UTF-8 would replace with ?
+         */
+        private static boolean isEncodable(String key, int start)
+        {
+            for(int i = start; i < key.length(); i++)
+            {
+                char c = key.charAt(i);
+                if(Character.isHighSurrogate(c) && i + 1 < key.length() && Character.isLowSurrogate(key.charAt(i + 1)))
+                {
+                    i++;
+                }
+                else if(Character.isSurrogate(c))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * the changes made in one ConfigurationRegistry.update call.
+ * They are published together when the call returns, or not at all if it throws.
+ */
+public class ConfigurationBatch
+{
+    private static final Object Deletion = new Object();
+    private final Map<String, Object> changes = new LinkedHashMap<>();
+
+
+    ConfigurationBatch()
+    {
+    }
+
+
+    public void registerProp(String key, String value)
+    {
+        changes.put(key, value);
+    }
+
+
+    public void registerObjectProp(String key, Object value)
+    {
+        changes.put(key, value);
+    }
+
+
+    public void registerListProp(String key, List<?> value)
+    {
+        changes.put(key, value);
+    }
+
+
+    public void updateProp(String key, String value)
+    {
+        changes.put(key, value);
+    }
+
+
+    public void updateObjectProp(String key, Object value)
+    {
+        changes.put(key, value);
+    }
+
+
+    public void updateListProp(String key, List<?> value)
+    {
+        changes.put(key, value);
+    }
+
+
+    public void deleteProp(String key)
+    {
+        changes.put(key, Deletion);
+    }
+
+
+    public void loadProps(Properties properties)
+    {
+        properties.forEach((key, value) -> changes.put(key.toString(), value));
+    }
+
+
+    public void loadProps(Map<String, ?> properties)
+    {
+        changes.putAll(properties);
+    }
+
+
+    Map<String, Object> getChanges()
+    {
+        return changes;
+    }
+
+
+    static boolean isDeletion(Object change)
+    {
+        return change == Deletion;
+    }
+}
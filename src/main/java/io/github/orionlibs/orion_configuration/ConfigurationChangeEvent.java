@@ -0,0 +1,22 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * the keys that changed since a ConfigurationChangeListener was last notified,
+ * limited to the keys and prefixes it subscribed to
+ */
+@AllArgsConstructor
+@Getter
+public class ConfigurationChangeEvent
+{
+    private final Set<String> changedKeys;
+
+
+    public static ConfigurationChangeEvent of(Set<String> changedKeys)
+    {
+        return new ConfigurationChangeEvent(Set.copyOf(changedKeys));
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.orionlibs.orion_configuration;
+
+/**
+ * notified after properties it subscribed to have been registered, updated or deleted.
+ * Changes made while a notification is pending are merged into it, and a listener
+ * is never called concurrently with itself.
+ */
+@FunctionalInterface
+public interface ConfigurationChangeListener
+{
+    void propertiesChanged(ConfigurationChangeEvent event);
+}
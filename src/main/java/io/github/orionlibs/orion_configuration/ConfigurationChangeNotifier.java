@@ -0,0 +1,269 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * the key and prefix subscriptions of a ConfigurationRegistry.
+ * Each listener has one delivery, however many keys and prefixes it subscribed to:
+ * changed keys are added to the delivery's pending set and a single task drains it on the
+ * listener's executor, so a burst of writes reaches the listener as one event, or as few as
+ * the executor's latency allows.
+ */
+final class ConfigurationChangeNotifier
+{
+    private final Executor defaultExecutor;
+    private final Map<String, List<Delivery>> deliveriesByKey = new ConcurrentHashMap<>();
+    private final List<PrefixSubscription> prefixSubscriptions = new CopyOnWriteArrayList<>();
+    /**
+     * guarded by itself
+     */
+    private final Map<ConfigurationChangeListener, Delivery> deliveries = new HashMap<>();
+
+
+    ConfigurationChangeNotifier(Executor defaultExecutor)
+    {
+        this.defaultExecutor = defaultExecutor;
+    }
+
+
+    void addKeyListener(String key, ConfigurationChangeListener listener, Executor executor)
+    {
+        synchronized(deliveries)
+        {
+            Delivery delivery = acquireDelivery(listener, executor);
+            List<Delivery> keyDeliveries = deliveriesByKey.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>());
+            if(keyDeliveries.contains(delivery))
+            {
+                releaseDelivery(delivery);
+            }
+            else
+            {
+                keyDeliveries.add(delivery);
+            }
+        }
+    }
+
+
+    void addPrefixListener(String prefix, ConfigurationChangeListener listener, Executor executor)
+    {
+        synchronized(deliveries)
+        {
+            Delivery delivery = acquireDelivery(listener, executor);
+            prefixSubscriptions.add(new PrefixSubscription(prefix, delivery));
+        }
+    }
+
+
+    void removeKeyListener(String key, ConfigurationChangeListener listener)
+    {
+        synchronized(deliveries)
+        {
+            Delivery delivery = deliveries.get(listener);
+            List<Delivery> keyDeliveries = deliveriesByKey.get(key);
+            if(delivery != null && keyDeliveries != null && keyDeliveries.remove(delivery))
+            {
+                if(keyDeliveries.isEmpty())
+                {
+                    deliveriesByKey.remove(key);
+                }
+                releaseDelivery(delivery);
+            }
+        }
+    }
+
+
+    void removePrefixListener(String prefix, ConfigurationChangeListener listener)
+    {
+        synchronized(deliveries)
+        {
+            for(PrefixSubscription subscription : prefixSubscriptions)
+            {
+                if(subscription.delivery.listener == listener && subscription.prefix.equals(prefix))
+                {
+                    prefixSubscriptions.remove(subscription);
+                    releaseDelivery(subscription.delivery);
+                    return;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * callers must hold the lock on deliveries
+     */
+    private Delivery acquireDelivery(ConfigurationChangeListener listener, Executor executor)
+    {
+        Delivery delivery = deliveries.computeIfAbsent(listener, l -> new Delivery(l, (executor != null) ? executor : defaultExecutor));
+        delivery.numberOfSubscriptions++;
+        return delivery;
+    }
+
+
+    /**
+     * callers must hold the lock on deliveries
+     */
+    private void releaseDelivery(Delivery delivery)
+    {
+        if(--delivery.numberOfSubscriptions == 0)
+        {
+            deliveries.remove(delivery.listener);
+        }
+    }
+
+
+    boolean hasListeners()
+    {
+        return !deliveriesByKey.isEmpty() || !prefixSubscriptions.isEmpty();
+    }
+
+
+    void notifyChange(String key)
+    {
+        if(!hasListeners())
+        {
+            return;
+        }
+        List<Delivery> keyDeliveries = deliveriesByKey.get(key);
+        if(keyDeliveries != null)
+        {
+            keyDeliveries.forEach(delivery -> delivery.enqueue(List.of(key)));
+        }
+        for(PrefixSubscription subscription : prefixSubscriptions)
+        {
+            if(key.startsWith(subscription.prefix))
+            {
+                subscription.delivery.enqueue(List.of(key));
+            }
+        }
+    }
+
+
+    void notifyChanges(Collection<String> keys)
+    {
+        if(!hasListeners() || keys.isEmpty())
+        {
+            return;
+        }
+        Map<Delivery, List<String>> keysByDelivery = new HashMap<>();
+        for(String key : keys)
+        {
+            List<Delivery> keyDeliveries = deliveriesByKey.get(key);
+            if(keyDeliveries != null)
+            {
+                keyDeliveries.forEach(delivery -> keysByDelivery.computeIfAbsent(delivery, d -> new ArrayList<>()).add(key));
+            }
+            for(PrefixSubscription subscription : prefixSubscriptions)
+            {
+                if(key.startsWith(subscription.prefix))
+                {
+                    keysByDelivery.computeIfAbsent(subscription.delivery, d -> new ArrayList<>()).add(key);
+                }
+            }
+        }
+        keysByDelivery.forEach(Delivery::enqueue);
+    }
+
+
+    private static final class PrefixSubscription
+    {
+        private final String prefix;
+        private final Delivery delivery;
+
+
+        private PrefixSubscription(String prefix, Delivery delivery)
+        {
+            this.prefix = prefix;
+            this.delivery = delivery;
+        }
+    }
+
+
+    private static final class Delivery
+    {
+        private final ConfigurationChangeListener listener;
+        private final Executor executor;
+        /**
+         * guarded by the lock on deliveries of the notifier
+         */
+        private int numberOfSubscriptions;
+        /**
+         * guarded by this
+         */
+        private Set<String> pendingKeys = new LinkedHashSet<>();
+        /**
+         * guarded by this
+         */
+        private boolean scheduled;
+
+
+        private Delivery(ConfigurationChangeListener listener, Executor executor)
+        {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+
+        private void enqueue(Collection<String> keys)
+        {
+            synchronized(this)
+            {
+                pendingKeys.addAll(keys);
+                if(scheduled)
+                {
+                    return;
+                }
+                scheduled = true;
+            }
+            try
+            {
+                executor.execute(this::deliver);
+            }
+            catch(RuntimeException e)
+            {
+                synchronized(this)
+                {
+                    scheduled = false;
+                }
+                throw e;
+            }
+        }
+
+
+        private void deliver()
+        {
+            while(true)
+            {
+                Set<String> changedKeys;
+                synchronized(this)
+                {
+                    if(pendingKeys.isEmpty())
+                    {
+                        scheduled = false;
+                        return;
+                    }
+                    changedKeys = pendingKeys;
+                    pendingKeys = new LinkedHashSet<>();
+                }
+                try
+                {
+                    listener.propertiesChanged(new ConfigurationChangeEvent(Collections.unmodifiableSet(changedKeys)));
+                }
+                catch(RuntimeException e)
+                {
+                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package io.github.orionlibs.orion_configuration;
+
+import io.github.orionlibs.orion_assert.ResourceException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * loads .properties files into a ConfigurationRegistry and reloads each of them when it changes.
+ * A reload parses only the changed file and applies, in one batch, just the keys that were added,
+ * changed or removed since its last load, so the values of every other key are left as they are.
+ * A removed key is deleted only if the registry still holds the value the file gave it.
+ * Files are watched through a WatchService. Files whose file system cannot be watched,
+ * or all files when no WatchService is available, are polled for a new modification time or size.
+ * Either way a file is reloaded once it has stopped changing, so that a file written in place
+ * is read whole; replacing it through an atomic rename avoids reading it half-written at all.
+ * A file that is deleted keeps its keys until it is created again. Reload failures are passed
+ * to the uncaught exception handler of the reloader thread and the file is reloaded on its next change.
+ */
+public class ConfigurationFileReloader implements AutoCloseable
+{
+    /**
+     * how long a watched directory has to be quiet before its changed files are reloaded
+     */
+    private static final Duration SettleTime = Duration.ofMillis(20);
+    private final ConfigurationRegistry registry;
+    private final PropertiesParser parser;
+    private final Duration pollingInterval;
+    private final WatchService watchService;
+    private final Map<Path, WatchedFile> watchedFiles = new ConcurrentHashMap<>();
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+    private final Thread reloaderThread;
+    private volatile boolean closed;
+
+
+    /**
+     * @param charset US-ASCII, ISO-8859-1 or UTF-8
+     * @throws IllegalArgumentException if the charset is none of these
+     */
+    public ConfigurationFileReloader(ConfigurationRegistry registry, Charset charset, Duration pollingInterval, boolean pollingOnly)
+    {
+        this.registry = registry;
+        this.parser = PropertiesParser.of(charset);
+        this.pollingInterval = pollingInterval;
+        this.watchService = pollingOnly ? null : newWatchService();
+        this.reloaderThread = Thread.ofVirtual().name("orion-configuration-reloader").start(this::reloadChangedFiles);
+    }
+
+
+    /**
+     * reads files as ISO-8859-1 and polls the files it cannot watch every second
+     */
+    public static ConfigurationFileReloader of(ConfigurationRegistry registry)
+    {
+        return new ConfigurationFileReloader(registry, StandardCharsets.ISO_8859_1, Duration.ofSeconds(1), false);
+    }
+
+
+    /**
+     * polls every file, e.g. for network file systems whose changes a WatchService does not report
+     */
+    public static ConfigurationFileReloader ofPolling(ConfigurationRegistry registry, Duration pollingInterval)
+    {
+        return new ConfigurationFileReloader(registry, StandardCharsets.ISO_8859_1, pollingInterval, true);
+    }
+
+
+    private static WatchService newWatchService()
+    {
+        try
+        {
+            return FileSystems.getDefault().newWatchService();
+        }
+        catch(IOException | UnsupportedOperationException e)
+        {
+            //every file is polled
+            return null;
+        }
+    }
+
+
+    /**
+     * loads the file into the registry and reloads it whenever it changes until close is called
+     */
+    public void watch(Path file) throws ResourceException
+    {
+        if(closed)
+        {
+            throw new IllegalStateException("The reloader is closed.");
+        }
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        WatchedFile watchedFile = new WatchedFile(absoluteFile, !watchDirectoryOf(absoluteFile));
+        if(watchedFiles.putIfAbsent(absoluteFile, watchedFile) == null)
+        {
+            try
+            {
+                reload(watchedFile);
+            }
+            catch(ResourceException e)
+            {
+                watchedFiles.remove(absoluteFile);
+                throw e;
+            }
+        }
+    }
+
+
+    /**
+     * @return whether the WatchService reports changes to files in the directory
+     */
+    private boolean watchDirectoryOf(Path file)
+    {
+        Path directory = file.getParent();
+        if(watchService == null || directory == null)
+        {
+            return false;
+        }
+        else if(watchedDirectories.contains(directory))
+        {
+            return true;
+        }
+        try
+        {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchedDirectories.add(directory);
+            return true;
+        }
+        catch(IOException | UnsupportedOperationException | ProviderMismatchException e)
+        {
+            return false;
+        }
+    }
+
+
+    /**
+     * stops watching: the keys loaded so far stay in the registry
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        reloaderThread.interrupt();
+        if(watchService != null)
+        {
+            try
+            {
+                watchService.close();
+            }
+            catch(IOException e)
+            {
+                //nothing is watched any more either way
+            }
+        }
+    }
+
+
+    private void reloadChangedFiles()
+    {
+        long nextPoll = System.nanoTime() + pollingInterval.toNanos();
+        while(!closed)
+        {
+            try
+            {
+                long untilNextPoll = Math.max(0, nextPoll - System.nanoTime());
+                if(watchService != null)
+                {
+                    WatchKey key = watchService.poll(untilNextPoll, TimeUnit.NANOSECONDS);
+                    if(key != null)
+                    {
+                        Set<WatchedFile> changedFiles = new LinkedHashSet<>();
+                        long settleDeadline = System.nanoTime() + pollingInterval.toNanos();
+                        while(key != null)
+                        {
+                            collectChangedFiles(key, changedFiles);
+                            key = System.nanoTime() - settleDeadline < 0 ? watchService.poll(SettleTime.toNanos(), TimeUnit.NANOSECONDS) : null;
+                        }
+                        changedFiles.forEach(this::reloadAndReport);
+                    }
+                }
+                else
+                {
+                    TimeUnit.NANOSECONDS.sleep(untilNextPoll);
+                }
+            }
+            catch(InterruptedException | ClosedWatchServiceException e)
+            {
+                return;
+            }
+            if(System.nanoTime() - nextPoll >= 0)
+            {
+                for(WatchedFile watchedFile : watchedFiles.values())
+                {
+                    if(watchedFile.polled && watchedFile.hasChangedAndSettled())
+                    {
+                        reloadAndReport(watchedFile);
+                    }
+                }
+                nextPoll = System.nanoTime() + pollingInterval.toNanos();
+            }
+        }
+    }
+
+
+    private void collectChangedFiles(WatchKey key, Set<WatchedFile> changedFiles)
+    {
+        Path directory = (Path)key.watchable();
+        for(WatchEvent<?> event : key.pollEvents())
+        {
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW)
+            {
+                //events were lost, so every file of the directory may have changed
+                watchedFiles.values().stream()
+                                .filter(watchedFile -> directory.equals(watchedFile.file.getParent()))
+                                .forEach(changedFiles::add);
+            }
+            else
+            {
+                WatchedFile watchedFile = watchedFiles.get(directory.resolve((Path)event.context()));
+                if(watchedFile != null)
+                {
+                    changedFiles.add(watchedFile);
+                }
+            }
+        }
+        key.reset();
+    }
+
+
+    private void reloadAndReport(WatchedFile watchedFile)
+    {
+        try
+        {
+            reload(watchedFile);
+        }
+        catch(ResourceException | RuntimeException e)
+        {
+            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+        }
+    }
+
+
+    private void reload(WatchedFile watchedFile) throws ResourceException
+    {
+        synchronized(watchedFile)
+        {
+            Map<String, String> newContents = new HashMap<>();
+            try
+            {
+                //a stream rather than a mapping, since the file may be truncated while it is read
+                BasicFileAttributes attributes = Files.readAttributes(watchedFile.file, BasicFileAttributes.class);
+                //recorded first, so that a file that fails to load is polled again only once it changes
+                watchedFile.lastModifiedTime = attributes.lastModifiedTime();
+                watchedFile.size = attributes.size();
+                try(InputStream input = Files.newInputStream(watchedFile.file))
+                {
+                    parser.parse(input, newContents::put);
+                }
+            }
+            catch(NoSuchFileException e)
+            {
+                if(watchedFile.contents == null)
+                {
+                    throw new ResourceException(e, "Cannot find %s.", watchedFile.file);
+                }
+                //deleted, or replaced through a rename that is reported next
+                return;
+            }
+            catch(IOException e)
+            {
+                throw new ResourceException(e, "Cannot read %s.", watchedFile.file);
+            }
+            catch(ResourceException e)
+            {
+                throw new ResourceException(e, "Cannot reload %s: %s", watchedFile.file, e.getMessage());
+            }
+            Map<String, String> oldContents = (watchedFile.contents != null) ? watchedFile.contents : Map.of();
+            registry.update(batch ->
+            {
+                newContents.forEach((key, value) ->
+                {
+                    if(!value.equals(oldContents.get(key)))
+                    {
+                        batch.registerProp(key, value);
+                    }
+                });
+                oldContents.forEach((key, value) ->
+                {
+                    //compared as written, since a value with ${key} references is held resolved
+                    if(!newContents.containsKey(key) && Objects.equals(registry.getWrittenObjectProp(key), value))
+                    {
+                        batch.deleteProp(key);
+                    }
+                });
+            });
+            watchedFile.contents = newContents;
+        }
+    }
+
+
+    private static final class WatchedFile
+    {
+        private final Path file;
+        private final boolean polled;
+        /**
+         * the keys and values of the last load; guarded by this
+         */
+        private Map<String, String> contents;
+        private volatile FileTime lastModifiedTime;
+        private volatile long size;
+        /**
+         * seen by the previous poll; only the reloader thread uses them
+         */
+        private FileTime polledModifiedTime;
+        private long polledSize;
+
+
+        private WatchedFile(Path file, boolean polled)
+        {
+            this.file = file;
+            this.polled = polled;
+        }
+
+
+        /**
+         * @return whether the file differs from its last load and is as the previous poll saw it
+         */
+        private boolean hasChangedAndSettled()
+        {
+            try
+            {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                boolean settled = attributes.lastModifiedTime().equals(polledModifiedTime) && attributes.size() == polledSize;
+                polledModifiedTime = attributes.lastModifiedTime();
+                polledSize = attributes.size();
+                return settled && (!attributes.lastModifiedTime().equals(lastModifiedTime) || attributes.size() != size);
+            }
+            catch(IOException e)
+            {
+                //deleted files keep their keys
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.orionlibs.orion_configuration;
+
+/**
+ * the sources of a LayeredConfiguration, from the lowest precedence to the highest:
+ * a key in a later layer hides the same key in every earlier one
+ */
+public enum ConfigurationLayer
+{
+    Defaults,
+    Files,
+    Environment,
+    SystemProperties,
+    RuntimeOverrides
+}
@@ -3,21 +3,126 @@ package io.github.orionlibs.orion_configuration;
 import io.github.orionlibs.orion_assert.ResourceException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
- * central registry of system, Orion and application-specific properties
+ * central registry of system, Orion and application-specific properties.
+ * Properties are kept in a concurrent map, so reads never take a lock.
+ * Writes are serialised on a private lock, which also keeps the optional
+ * value-to-keys index in step with the properties. Single writes change the map in place;
+ * update, loadAll and the loadProps methods build a new map and publish it with one volatile write,
+ * so readers see either none or all of a batch. snapshot shares the current map with a
+ * read-only registry and the next write copies it first. Each value is wrapped in a
+ * PropertyValue that caches what the typed getters parsed from it.
+ * Property handles bound through intHandle, stringHandle, etc. are refreshed
+ * by every write to their key, for as long as they are referenced. ConfigurationChangeListeners subscribed to a key or a prefix
+ * are notified of the keys whose values actually changed, after the write is visible,
+ * on the executor of ConfigurationRegistryOptions unless they were given one.
+ * When property references are enabled, every write resolves the ${key} references of the values it writes
+ * and of the values that depend on the keys it changes, and publishes them together.
  * @author dimitrios.efthymiou
  */
-public class ConfigurationRegistry extends OrionProperties
+public class ConfigurationRegistry
 {
+    private volatile PropertyStore properties;
+    /**
+     * odd while a single write changes properties in place, so that snapshot can tell
+     * whether the map it marked as shared may still be changed by that write
+     */
+    private volatile long writeSequence;
+    private final boolean readOnly;
+    /**
+     * value -> key (a String) when one key holds the value, or value -> Set of keys
+     * when several do. It is null when the index is disabled.
+     */
+    private final Map<Object, Object> keysByValue;
+    private final boolean lazyDecodedValues;
+    /**
+     * guarded by writeLock; null unless property references are enabled
+     */
+    private final PropertyReferences propertyReferences;
+    /**
+     * the system properties looked up so far when they are a fallback, so that the values parsed from them
+     * are cached as they are for the registry's own properties. It is null unless they are a fallback.
+     */
+    private final Map<String, PropertyValue> systemPropertyValues;
+    private final Object writeLock = new Object();
+    /**
+     * guarded by writeLock. Handles are held weakly, so that a handle nobody reads any more
+     * is dropped once it has been collected.
+     */
+    private final Map<String, List<HandleReference>> handlesByKey = new HashMap<>();
+    private final ReferenceQueue<PropertyHandle> collectedHandles = new ReferenceQueue<>();
+    private final ConfigurationChangeNotifier changeNotifier;
+    private final Map<String, String> propertiesView = new PropertyMapView(() -> properties);
+
+
     public ConfigurationRegistry()
     {
-        loadProps(System.getProperties());
+        this(ConfigurationRegistryOptions.of());
+    }
+
+
+    public ConfigurationRegistry(ConfigurationRegistryOptions options)
+    {
+        this(options, options.getSystemPropertiesMode());
+    }
+
+
+    /**
+     * LayeredConfiguration skips the system properties, since they have a layer of their own
+     */
+    ConfigurationRegistry(ConfigurationRegistryOptions options, ConfigurationRegistryOptions.SystemPropertiesMode systemPropertiesMode)
+    {
+        this.properties = options.isCompactStorageEnabled() ? new CompactPropertyMap() : new PropertyMap();
+        this.keysByValue = options.isReverseIndexEnabled() ? new ConcurrentHashMap<>() : null;
+        this.propertyReferences = options.isPropertyReferencesEnabled() ? new PropertyReferences() : null;
+        this.lazyDecodedValues = options.isLazyDecodedValuesEnabled() && keysByValue == null && propertyReferences == null && !options.isCompactStorageEnabled();
+        this.systemPropertyValues = (systemPropertiesMode == ConfigurationRegistryOptions.SystemPropertiesMode.Fallback) ? new ConcurrentHashMap<>() : null;
+        this.changeNotifier = new ConfigurationChangeNotifier(options.getChangeListenerExecutor());
+        this.readOnly = false;
+        if(systemPropertiesMode == ConfigurationRegistryOptions.SystemPropertiesMode.Copied)
+        {
+            loadProps(System.getProperties());
+        }
+    }
+
+
+    private ConfigurationRegistry(PropertyStore snapshotProperties, Map<String, PropertyValue> systemPropertyValues)
+    {
+        this.properties = snapshotProperties;
+        this.keysByValue = null;
+        this.lazyDecodedValues = false;
+        this.propertyReferences = null;
+        this.systemPropertyValues = systemPropertyValues;
+        this.changeNotifier = new ConfigurationChangeNotifier(Runnable::run);
+        this.readOnly = true;
     }
 
 
@@ -27,15 +132,30 @@ public class ConfigurationRegistry extends OrionProperties
     }
 
 
+    public static ConfigurationRegistry of(ConfigurationRegistryOptions options)
+    {
+        return new ConfigurationRegistry(options);
+    }
+
+
     public boolean doesValueExist(String value)
     {
-        return containsValue(value);
+        return doesObjectValueExist(value);
     }
 
 
     public boolean doesObjectValueExist(Object value)
     {
-        return containsValue(value);
+        if(value == null)
+        {
+            return false;
+        }
+        else if(keysByValue != null)
+        {
+            return keysByValue.containsKey(value);
+        }
+        return properties.values().stream()
+                        .anyMatch(propertyValue -> propertyValue.getValue().equals(value));
     }
 
 
@@ -53,96 +173,706 @@ public class ConfigurationRegistry extends OrionProperties
 
     public String getKeyFromValue(String value)
     {
-        return (String)(entrySet().stream()
-                        .filter(entry -> ((String)entry.getValue()).equals(value))
-                        .findFirst().orElse(null).getKey());
+        return getKeyFromObjectValue(value);
     }
 
 
     public List<String> getKeysFromValue(String value)
     {
-        return entrySet().stream()
-                        .filter(entry -> ((String)entry.getValue()).equals(value))
-                        .map(entry -> (String)entry.getKey())
-                        .collect(Collectors.toList());
+        return getKeysFromObjectValue(value);
     }
 
 
+    @SuppressWarnings("unchecked")
     public String getKeyFromObjectValue(Object value)
     {
-        return (String)(entrySet().stream()
-                        .filter(entry -> (entry.getValue()).equals(value))
-                        .findFirst().orElse(null).getKey());
+        if(value == null)
+        {
+            return null;
+        }
+        else if(keysByValue != null)
+        {
+            Object keys = keysByValue.get(value);
+            if(keys instanceof String)
+            {
+                return (String)keys;
+            }
+            else if(keys != null)
+            {
+                for(String key : (Set<String>)keys)
+                {
+                    return key;
+                }
+            }
+            return null;
+        }
+        return properties.entrySet().stream()
+                        .filter(entry -> entry.getValue().getValue().equals(value))
+                        .map(Map.Entry::getKey)
+                        .findFirst().orElse(null);
     }
 
 
+    @SuppressWarnings("unchecked")
     public List<String> getKeysFromObjectValue(Object value)
     {
-        return entrySet().stream()
-                        .filter(entry -> (entry.getValue()).equals(value))
-                        .map(entry -> (String)entry.getKey())
+        if(value == null)
+        {
+            return new ArrayList<>();
+        }
+        else if(keysByValue != null)
+        {
+            Object keys = keysByValue.get(value);
+            List<String> result = new ArrayList<>();
+            if(keys instanceof String)
+            {
+                result.add((String)keys);
+            }
+            else if(keys != null)
+            {
+                result.addAll((Set<String>)keys);
+            }
+            return result;
+        }
+        return properties.entrySet().stream()
+                        .filter(entry -> entry.getValue().getValue().equals(value))
+                        .map(Map.Entry::getKey)
                         .collect(Collectors.toList());
     }
 
 
+    public boolean isReverseIndexEnabled()
+    {
+        return keysByValue != null;
+    }
+
+
+    /**
+     * reads the input as an ISO-8859-1 .properties file, like Properties.load(InputStream)
+     */
     public void loadProps(InputStream propertiesFileInput) throws ResourceException
     {
-        try
+        loadProps(propertiesFileInput, StandardCharsets.ISO_8859_1);
+    }
+
+
+    /**
+     * parses the input straight into one batch, so nothing is loaded if it is malformed
+     * @param charset US-ASCII, ISO-8859-1 or UTF-8
+     * @throws IllegalArgumentException if the charset is none of these
+     */
+    public void loadProps(InputStream propertiesFileInput, Charset charset) throws ResourceException
+    {
+        checkWritable();
+        ConfigurationBatch batch = new ConfigurationBatch();
+        PropertiesParser.of(charset).parse(propertiesFileInput, batch::registerProp);
+        applyBatch(batch);
+    }
+
+
+    /**
+     * reads the file as an ISO-8859-1 .properties file through a memory mapping.
+     * The file should not be truncated while it is read: a mapped file that shrinks under the reader
+     * fails the load, and on some platforms it can crash the process.
+     */
+    public void loadProps(Path propertiesFile) throws ResourceException
+    {
+        loadProps(propertiesFile, StandardCharsets.ISO_8859_1);
+    }
+
+
+    /**
+     * parses the file from a memory mapping instead of a stream, into one batch.
+     * The file can be at most 2 GB. See ConfigurationRegistryOptions.lazyDecodedValuesEnabled
+     * for leaving values undecoded until they are read: their bytes are copied out of the mapping,
+     * so editing or truncating the file afterwards changes none of the loaded values.
+     * The file should not be truncated while it is read.
+     * @param charset US-ASCII, ISO-8859-1 or UTF-8
+     * @throws IllegalArgumentException if the charset is none of these
+     */
+    public void loadProps(Path propertiesFile, Charset charset) throws ResourceException
+    {
+        checkWritable();
+        PropertiesParser parser = PropertiesParser.of(charset);
+        ConfigurationBatch batch = new ConfigurationBatch();
+        try(FileChannel channel = FileChannel.open(propertiesFile, StandardOpenOption.READ))
         {
-            load(propertiesFileInput);
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE)
+            {
+                throw new ResourceException("Cannot map %s, which is larger than 2 GB.", propertiesFile);
+            }
+            //the mapping stays valid after the channel is closed
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            parser.parseMapped(file, lazyDecodedValues, batch::registerObjectProp);
         }
         catch(IOException e)
         {
-            throw new ResourceException("Cannot load properties from the given InputStream.");
+            throw new ResourceException(e, "Cannot map %s.", propertiesFile);
+        }
+        catch(InternalError e)
+        {
+            //how the JVM reports a read past the end of a mapped file that has been truncated
+            throw new ResourceException(e, "Cannot read %s, which was truncated while it was read.", propertiesFile);
         }
+        applyBatch(batch);
     }
 
 
     public void loadProps(Properties properties)
     {
-        putAll(properties);
+        update(batch -> batch.loadProps(properties));
+    }
+
+
+    public void loadProps(ConfigurationRegistry configurationRegistry)
+    {
+        update(batch -> configurationRegistry.properties.forEach((key, value) -> batch.registerObjectProp(key, value.getValue())));
+    }
+
+
+    /**
+     * parses every source on its own virtual thread and then loads them all in one batch.
+     * Where sources define the same key, the one later in the list wins.
+     * Nothing is loaded if any source fails.
+     */
+    public void loadAll(List<ConfigurationSource> sources) throws ResourceException
+    {
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            loadAll(sources, executor);
+        }
+    }
+
+
+    /**
+     * same as loadAll(sources), but parses the sources on the given executor
+     */
+    public void loadAll(List<ConfigurationSource> sources, Executor executor) throws ResourceException
+    {
+        checkWritable();
+        List<FutureTask<Map<String, ?>>> parsedSources = new ArrayList<>(sources.size());
+        for(ConfigurationSource source : sources)
+        {
+            FutureTask<Map<String, ?>> parsedSource = new FutureTask<>(source::load);
+            parsedSources.add(parsedSource);
+            executor.execute(parsedSource);
+        }
+        List<Map<String, ?>> loadedSources = new ArrayList<>(sources.size());
+        try
+        {
+            for(FutureTask<Map<String, ?>> parsedSource : parsedSources)
+            {
+                loadedSources.add(parsedSource.get());
+            }
+        }
+        catch(ExecutionException e)
+        {
+            parsedSources.forEach(parsedSource -> parsedSource.cancel(true));
+            if(e.getCause() instanceof ResourceException)
+            {
+                throw (ResourceException)e.getCause();
+            }
+            throw new ResourceException(e.getCause(), "Cannot load configuration source.");
+        }
+        catch(InterruptedException e)
+        {
+            parsedSources.forEach(parsedSource -> parsedSource.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ResourceException(e, "Interrupted while loading configuration sources.");
+        }
+        update(batch -> loadedSources.forEach(batch::loadProps));
+    }
+
+
+    /**
+     * applies all the changes made to the batch at once: readers see the registry either before
+     * or after them, never in between. Nothing is applied if changes throws.
+     */
+    public void update(Consumer<ConfigurationBatch> changes)
+    {
+        checkWritable();
+        ConfigurationBatch batch = new ConfigurationBatch();
+        changes.accept(batch);
+        applyBatch(batch);
+    }
+
+
+    private void applyBatch(ConfigurationBatch batch)
+    {
+        if(!batch.getChanges().isEmpty())
+        {
+            applyBatch(batch.getChanges(), false);
+        }
+    }
+
+
+    /**
+     * changes that would leave a property as it is are dropped first, so that reloading an unchanged
+     * configuration copies nothing, and a batch left with a single change is applied in place.
+     * inPlace applies every change in place, one after the other, for a single write whose references
+     * change other keys with it.
+     */
+    private void applyBatch(Map<String, Object> changes, boolean inPlace)
+    {
+        List<String> changedKeys = new ArrayList<>();
+        synchronized(writeLock)
+        {
+            if(propertyReferences != null)
+            {
+                changes = propertyReferences.resolve(changes, this::lookup);
+            }
+            PropertyStore currentProperties = properties;
+            List<Map.Entry<String, Object>> effectiveChanges = new ArrayList<>(changes.size());
+            for(Map.Entry<String, Object> change : changes.entrySet())
+            {
+                PropertyValue currentValue = currentProperties.get(change.getKey());
+                boolean isDeletion = ConfigurationBatch.isDeletion(change.getValue());
+                if(isDeletion ? currentValue != null : currentValue == null || !currentValue.holds(change.getValue()))
+                {
+                    effectiveChanges.add(change);
+                }
+            }
+            if(effectiveChanges.size() == 1 || inPlace)
+            {
+                for(Map.Entry<String, Object> change : effectiveChanges)
+                {
+                    if(ConfigurationBatch.isDeletion(change.getValue()))
+                    {
+                        propertyDeleted(change.getKey(), changePropertyInPlace(change.getKey(), null));
+                    }
+                    else
+                    {
+                        PropertyValue newValue = new PropertyValue(change.getValue());
+                        propertyPut(change.getKey(), changePropertyInPlace(change.getKey(), newValue), newValue);
+                    }
+                    changedKeys.add(change.getKey());
+                }
+            }
+            else if(!effectiveChanges.isEmpty())
+            {
+                PropertyStore nextProperties = currentProperties.copy();
+                PropertyValue[] previousValues = new PropertyValue[effectiveChanges.size()];
+                PropertyValue[] newValues = new PropertyValue[effectiveChanges.size()];
+                for(int i = 0; i < previousValues.length; i++)
+                {
+                    Map.Entry<String, Object> change = effectiveChanges.get(i);
+                    if(ConfigurationBatch.isDeletion(change.getValue()))
+                    {
+                        previousValues[i] = nextProperties.removeValue(change.getKey());
+                    }
+                    else
+                    {
+                        newValues[i] = new PropertyValue(change.getValue());
+                        previousValues[i] = nextProperties.putValue(change.getKey(), newValues[i]);
+                    }
+                }
+                nextProperties.batchWritten();
+                properties = nextProperties;
+                for(int i = 0; i < previousValues.length; i++)
+                {
+                    String key = effectiveChanges.get(i).getKey();
+                    if(newValues[i] != null)
+                    {
+                        propertyPut(key, previousValues[i], newValues[i]);
+                    }
+                    else
+                    {
+                        propertyDeleted(key, previousValues[i]);
+                    }
+                    changedKeys.add(key);
+                }
+            }
+        }
+        changeNotifier.notifyChanges(changedKeys);
+    }
+
+
+    /**
+     * @return a read-only registry with the properties as they are now, which no later write changes.
+     * It costs no copy: the next write to this registry copies the properties instead, once.
+     * Writes to the snapshot throw an UnsupportedOperationException.
+     */
+    public ConfigurationRegistry snapshot()
+    {
+        if(readOnly)
+        {
+            return this;
+        }
+        while(true)
+        {
+            long sequence = writeSequence;
+            if((sequence & 1) == 0)
+            {
+                PropertyStore snapshotProperties = properties;
+                snapshotProperties.markShared();
+                if(writeSequence == sequence)
+                {
+                    return new ConfigurationRegistry(snapshotProperties, systemPropertyValues);
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+
+    /**
+     * @return a read-only registry over the current properties. Unlike a snapshot, it does not mark them shared,
+     * so writes made in place show through it, while the new properties a batch publishes do not.
+     */
+    ConfigurationRegistry readView()
+    {
+        return readOnly ? this : new ConfigurationRegistry(properties, systemPropertyValues);
+    }
+
+
+    public boolean isReadOnly()
+    {
+        return readOnly;
+    }
+
+
+    private void checkWritable()
+    {
+        if(readOnly)
+        {
+            throw new UnsupportedOperationException("A configuration snapshot is read-only.");
+        }
+    }
+
+
+    /**
+     * callers must hold the write lock
+     */
+    private PropertyValue changePropertyInPlace(String key, PropertyValue value)
+    {
+        writeSequence++;
+        try
+        {
+            PropertyStore writableProperties = properties;
+            if(writableProperties.isShared())
+            {
+                writableProperties = writableProperties.copy();
+                properties = writableProperties;
+            }
+            return (value != null) ? writableProperties.putValue(key, value) : writableProperties.removeValue(key);
+        }
+        finally
+        {
+            writeSequence++;
+        }
     }
 
 
     public void registerListProp(String key, List<?> value)
     {
-        put(key, value);
+        writeProperty(key, value);
     }
 
 
     public void registerObjectProp(String key, Object value)
     {
-        put(key, value);
+        writeProperty(key, value);
     }
 
 
     public void registerProp(String key, String value)
     {
-        put(key, value);
+        writeProperty(key, value);
     }
 
 
     public void updateProp(String key, String value)
     {
-        put(key, value);
+        writeProperty(key, value);
     }
 
 
     public void updateObjectProp(String key, Object value)
     {
-        put(key, value);
+        writeProperty(key, value);
     }
 
 
     public void updateListProp(String key, List<?> value)
     {
-        put(key, value);
+        writeProperty(key, value);
     }
 
 
     public void deleteProp(String key)
     {
-        remove(key);
+        checkWritable();
+        if(propertyReferences != null)
+        {
+            ConfigurationBatch batch = new ConfigurationBatch();
+            batch.deleteProp(key);
+            applyBatch(batch.getChanges(), true);
+            return;
+        }
+        boolean changed;
+        synchronized(writeLock)
+        {
+            changed = propertyDeleted(key, changePropertyInPlace(key, null));
+        }
+        if(changed)
+        {
+            changeNotifier.notifyChange(key);
+        }
+    }
+
+
+    private void writeProperty(String key, Object value)
+    {
+        checkWritable();
+        if(propertyReferences != null)
+        {
+            //the keys that depend on this one change with it
+            ConfigurationBatch batch = new ConfigurationBatch();
+            batch.registerObjectProp(key, value);
+            applyBatch(batch.getChanges(), true);
+            return;
+        }
+        boolean changed;
+        synchronized(writeLock)
+        {
+            PropertyValue newValue = new PropertyValue(value);
+            changed = propertyPut(key, changePropertyInPlace(key, newValue), newValue);
+        }
+        if(changed)
+        {
+            changeNotifier.notifyChange(key);
+        }
+    }
+
+
+    /**
+     * updates the reverse index and the handles after a put; callers must hold the write lock
+     * @return whether the key was new or held a different value
+     */
+    private boolean propertyPut(String key, PropertyValue previousValue, PropertyValue newValue)
+    {
+        boolean changed = previousValue == null || !previousValue.holdsSameValue(newValue);
+        if(keysByValue != null && changed)
+        {
+            if(previousValue != null)
+            {
+                removeFromReverseIndex(previousValue.getValue(), key);
+            }
+            addToReverseIndex(newValue.getValue(), key);
+        }
+        refreshHandles(key, newValue);
+        return changed;
+    }
+
+
+    /**
+     * updates the reverse index and the handles after a removal; callers must hold the write lock
+     * @return whether the key existed
+     */
+    private boolean propertyDeleted(String key, PropertyValue previousValue)
+    {
+        if(previousValue != null && keysByValue != null)
+        {
+            removeFromReverseIndex(previousValue.getValue(), key);
+        }
+        //a system property that is a fallback shows through again
+        refreshHandles(key, lookup(key));
+        return previousValue != null;
+    }
+
+
+    /**
+     * callers must hold the write lock
+     */
+    private void refreshHandles(String key, PropertyValue value)
+    {
+        expungeCollectedHandles();
+        List<HandleReference> handles = handlesByKey.get(key);
+        if(handles != null)
+        {
+            for(HandleReference reference : handles)
+            {
+                PropertyHandle handle = reference.get();
+                if(handle != null)
+                {
+                    handle.refresh(value);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * callers must hold the write lock
+     */
+    private void expungeCollectedHandles()
+    {
+        for(Reference<?> reference = collectedHandles.poll(); reference != null; reference = collectedHandles.poll())
+        {
+            String key = ((HandleReference)reference).key;
+            List<HandleReference> handles = handlesByKey.get(key);
+            if(handles != null && handles.remove(reference) && handles.isEmpty())
+            {
+                handlesByKey.remove(key);
+            }
+        }
+    }
+
+
+    /**
+     * subscribes the listener to changes of the given key. A listener is notified on the executor
+     * it was first subscribed with, and one subscribed to several keys and prefixes still gets
+     * one event per batch of changes.
+     */
+    public void addChangeListener(String key, ConfigurationChangeListener listener)
+    {
+        changeNotifier.addKeyListener(key, listener, null);
+    }
+
+
+    public void addChangeListener(String key, ConfigurationChangeListener listener, Executor executor)
+    {
+        changeNotifier.addKeyListener(key, listener, executor);
+    }
+
+
+    /**
+     * subscribes the listener to changes of every key that starts with the given prefix
+     */
+    public void addPrefixChangeListener(String prefix, ConfigurationChangeListener listener)
+    {
+        changeNotifier.addPrefixListener(prefix, listener, null);
+    }
+
+
+    public void addPrefixChangeListener(String prefix, ConfigurationChangeListener listener, Executor executor)
+    {
+        changeNotifier.addPrefixListener(prefix, listener, executor);
+    }
+
+
+    public void removeChangeListener(String key, ConfigurationChangeListener listener)
+    {
+        changeNotifier.removeKeyListener(key, listener);
+    }
+
+
+    public void removePrefixChangeListener(String prefix, ConfigurationChangeListener listener)
+    {
+        changeNotifier.removePrefixListener(prefix, listener);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private <T extends PropertyHandle> T bindHandle(T handle)
+    {
+        synchronized(writeLock)
+        {
+            expungeCollectedHandles();
+            List<HandleReference> handles = handlesByKey.computeIfAbsent(handle.getKey(), key -> new ArrayList<>());
+            for(HandleReference reference : handles)
+            {
+                PropertyHandle existingHandle = reference.get();
+                if(existingHandle != null && existingHandle.isSameBindingAs(handle))
+                {
+                    return (T)existingHandle;
+                }
+            }
+            handle.refresh(lookup(handle.getKey()));
+            handles.add(new HandleReference(handle, collectedHandles));
+            return handle;
+        }
+    }
+
+
+    public IntPropertyHandle intHandle(String key, int defaultValue)
+    {
+        return bindHandle(new IntPropertyHandle(key, defaultValue));
+    }
+
+
+    public LongPropertyHandle longHandle(String key, long defaultValue)
+    {
+        return bindHandle(new LongPropertyHandle(key, defaultValue));
+    }
+
+
+    public DoublePropertyHandle doubleHandle(String key, double defaultValue)
+    {
+        return bindHandle(new DoublePropertyHandle(key, defaultValue));
+    }
+
+
+    public BooleanPropertyHandle booleanHandle(String key, boolean defaultValue)
+    {
+        return bindHandle(new BooleanPropertyHandle(key, defaultValue));
+    }
+
+
+    public StringPropertyHandle stringHandle(String key, String defaultValue)
+    {
+        return bindHandle(new StringPropertyHandle(key, defaultValue));
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private void addToReverseIndex(Object value, String key)
+    {
+        if(value == null)
+        {
+            //null values are not indexed
+            return;
+        }
+        keysByValue.compute(value, (indexedValue, keys) ->
+        {
+            if(keys == null || key.equals(keys))
+            {
+                return key;
+            }
+            else if(keys instanceof String)
+            {
+                Set<String> keysWithValue = ConcurrentHashMap.newKeySet();
+                keysWithValue.add((String)keys);
+                keysWithValue.add(key);
+                return keysWithValue;
+            }
+            ((Set<String>)keys).add(key);
+            return keys;
+        });
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private void removeFromReverseIndex(Object value, String key)
+    {
+        if(value == null)
+        {
+            //null values are not indexed
+            return;
+        }
+        keysByValue.computeIfPresent(value, (indexedValue, keys) ->
+        {
+            if(keys instanceof String)
+            {
+                return key.equals(keys) ? null : keys;
+            }
+            Set<String> keysWithValue = (Set<String>)keys;
+            keysWithValue.remove(key);
+            return keysWithValue.isEmpty() ? null : keysWithValue;
+        });
+    }
+
+
+    public int size()
+    {
+        return properties.size();
+    }
+
+
+    public boolean isEmpty()
+    {
+        return properties.isEmpty();
     }
 
 
@@ -152,6 +882,162 @@ public class ConfigurationRegistry extends OrionProperties
     }
 
 
+    /**
+     * @return an unmodifiable view of the properties with their values as strings. It copies nothing
+     * and follows later writes; take it from a snapshot for a view that does not change.
+     */
+    public Map<String, String> asMap()
+    {
+        return propertiesView;
+    }
+
+
+    /**
+     * @return the properties whose keys start with the given prefix, in key order, with their values as strings.
+     * The first call builds a sorted index of the keys; after that it costs O(log n + number of results).
+     */
+    public Map<String, String> getPropsWithPrefix(String prefix)
+    {
+        PropertyStore currentProperties = properties;
+        Map<String, String> propsWithPrefix = new LinkedHashMap<>();
+        currentProperties.forEachKeyWithPrefix(prefix, key ->
+        {
+            PropertyValue value = currentProperties.get(key);
+            if(value != null)
+            {
+                propsWithPrefix.put(key, PropertyMapView.toText(value));
+            }
+        });
+        return propsWithPrefix;
+    }
+
+
+    /**
+     * @return a view of the properties under the given namespace, e.g. subRegistry("db.pool").getIntegerProp("size")
+     * reads "db.pool.size". It follows later writes to this registry.
+     */
+    public ConfigurationSubRegistry subRegistry(String namespace)
+    {
+        return new ConfigurationSubRegistry(this, namespace);
+    }
+
+
+    /**
+     * @return a new record or POJO of the given type, filled from the properties under the prefix:
+     * e.g. bind("db.pool", PoolConfig.class) reads the component maxSize from "db.pool.max.size".
+     * Missing properties leave POJO fields as they are and give record components null, or zero for primitives.
+     * Members are read from the current properties without taking a snapshot, so binding does not make the next write
+     * copy the registry; a batch still reaches the object either whole or not at all.
+     * @throws InvalidConfigurationPropertyException if a property cannot be converted to its member's type
+     * or the constructor throws
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T bind(String prefix, Class<T> type) throws InvalidConfigurationPropertyException
+    {
+        return (T)PropertyBinder.of(type).bind(readView(), prefix);
+    }
+
+
+    /**
+     * visits every property, with its value as a string, without copying the registry
+     */
+    public void forEachProp(BiConsumer<String, String> action)
+    {
+        properties.forEach((key, value) -> action.accept(key, PropertyMapView.toText(value)));
+    }
+
+
+    /**
+     * visits every property, with its value as it was registered, without copying the registry
+     */
+    public void forEachObjectProp(BiConsumer<String, Object> action)
+    {
+        properties.forEach((key, value) -> action.accept(key, value.getValue()));
+    }
+
+
+    public Properties toProperties()
+    {
+        Properties propertiesCopy = new Properties();
+        properties.forEach((key, value) -> propertiesCopy.put(key, value.getValue()));
+        return propertiesCopy;
+    }
+
+
+    /**
+     * @return the value of the key as it was written: the same as getObjectProp, except that a value
+     * with ${key} references is returned with its references unresolved
+     */
+    Object getWrittenObjectProp(String key)
+    {
+        if(propertyReferences != null)
+        {
+            synchronized(writeLock)
+            {
+                String writtenValue = propertyReferences.getWrittenValue(key);
+                if(writtenValue != null)
+                {
+                    return writtenValue;
+                }
+            }
+        }
+        return getObjectProp(key);
+    }
+
+
+    /**
+     * the value of the key, falling back to the system property when the system properties are a fallback
+     */
+    private PropertyValue lookup(String key)
+    {
+        PropertyValue value = properties.get(key);
+        if(value == null && systemPropertyValues != null)
+        {
+            String systemProperty = System.getProperty(key);
+            if(systemProperty == null)
+            {
+                return null;
+            }
+            value = systemPropertyValues.get(key);
+            if(value == null || !value.holds(systemProperty))
+            {
+                //the system property was set since it was last looked up
+                value = new PropertyValue(systemProperty);
+                systemPropertyValues.put(key, value);
+            }
+        }
+        return value;
+    }
+
+
+    private String getProperty(String key)
+    {
+        PropertyValue value = lookup(key);
+        return (value != null) ? value.getString() : null;
+    }
+
+
+    private Object getPropertyObject(String key)
+    {
+        PropertyValue value = lookup(key);
+        return (value != null) ? value.getValue() : null;
+    }
+
+
+    private <T> T getParsedProperty(String key, PropertyValueParser<T> parser)
+    {
+        if(keyIsNotEmpty(key))
+        {
+            PropertyValue value = lookup(key);
+            if(value != null)
+            {
+                return value.getParsedValue(parser);
+            }
+        }
+        return null;
+    }
+
+
     public String getProp(String prop)
     {
         return getProp(prop, null);
@@ -174,7 +1060,7 @@ public class ConfigurationRegistry extends OrionProperties
     {
         if(keyIsNotEmpty(prop))
         {
-            return super.getProperty(prop);
+            return getProperty(prop);
         }
         else
         {
@@ -187,7 +1073,7 @@ public class ConfigurationRegistry extends OrionProperties
     {
         if(keyIsNotEmpty(prop))
         {
-            return get(prop);
+            return getPropertyObject(prop);
         }
         else
         {
@@ -200,7 +1086,7 @@ public class ConfigurationRegistry extends OrionProperties
     {
         if(keyIsNotEmpty(prop))
         {
-            return (List<?>)super.get(prop);
+            return (List<?>)getPropertyObject(prop);
         }
         else
         {
@@ -215,18 +1101,38 @@ public class ConfigurationRegistry extends OrionProperties
     }
 
 
+    /**
+     * same as getPropWithPlaceholders(prop, List), without building a List per call.
+     * It has a name of its own, so that getPropWithPlaceholders(prop, null) still means the List overload.
+     */
+    public String getPropWithPlaceholderValues(String prop, String... propertyPlaceholders)
+    {
+        return applyPlaceholders(prop, getProp(prop, null), propertyPlaceholders);
+    }
+
+
     public String getPropWithPlaceholders(String prop, String defaultValue, List<String> propertyPlaceholders)
     {
-        return applyPlaceholders(getProp(prop, defaultValue), propertyPlaceholders);
+        Object[] placeholders = (propertyPlaceholders != null) ? propertyPlaceholders.toArray() : null;
+        return applyPlaceholders(prop, getProp(prop, defaultValue), placeholders);
     }
 
 
-    private String applyPlaceholders(String aString, List<String> placeholders)
+    private String applyPlaceholders(String prop, String aString, Object[] placeholders)
     {
-        if(aString != null && !aString.isEmpty() && placeholders != null && !placeholders.isEmpty())
+        if(aString != null && !aString.isEmpty() && placeholders != null && placeholders.length > 0)
         {
-            Object[] placeholders1 = placeholders.toArray(new Object[0]);
-            return MessageFormat.format(aString, placeholders1);
+            MessageTemplate template;
+            PropertyValue value = keyIsNotEmpty(prop) ? lookup(prop) : null;
+            if(value != null && value.getString() == aString)
+            {
+                template = value.getParsedValue(PropertyValueParsers.MessageTemplateValue);
+            }
+            else
+            {
+                template = MessageTemplate.compile(aString);
+            }
+            return (template != null) ? template.format(placeholders) : MessageFormat.format(aString, placeholders);
         }
         else
         {
@@ -243,18 +1149,8 @@ public class ConfigurationRegistry extends OrionProperties
 
     public Byte getByteProp(String key, byte defaultValue)
     {
-        if(keyIsNotEmpty(key))
-        {
-            try
-            {
-                return Byte.parseByte(getProperty(key));
-            }
-            catch(NumberFormatException e)
-            {
-                return defaultValue;
-            }
-        }
-        return defaultValue;
+        Byte value = getParsedProperty(key, PropertyValueParsers.ByteValue);
+        return (value != null) ? value : Byte.valueOf(defaultValue);
     }
 
 
@@ -266,18 +1162,8 @@ public class ConfigurationRegistry extends OrionProperties
 
     public Short getShortProp(String key, short defaultValue)
     {
-        if(keyIsNotEmpty(key))
-        {
-            try
-            {
-                return Short.parseShort(getProperty(key));
-            }
-            catch(NumberFormatException e)
-            {
-                return defaultValue;
-            }
-        }
-        return defaultValue;
+        Short value = getParsedProperty(key, PropertyValueParsers.ShortValue);
+        return (value != null) ? value : Short.valueOf(defaultValue);
     }
 
 
@@ -289,18 +1175,8 @@ public class ConfigurationRegistry extends OrionProperties
 
     public Integer getIntegerProp(String key, int defaultValue)
     {
-        if(keyIsNotEmpty(key))
-        {
-            try
-            {
-                return Integer.parseInt(getProperty(key));
-            }
-            catch(NumberFormatException e)
-            {
-                return defaultValue;
-            }
-        }
-        return defaultValue;
+        Integer value = getParsedProperty(key, PropertyValueParsers.IntegerValue);
+        return (value != null) ? value : Integer.valueOf(defaultValue);
     }
 
 
@@ -312,18 +1188,8 @@ public class ConfigurationRegistry extends OrionProperties
 
     public Long getLongProp(String key, long defaultValue)
     {
-        if(keyIsNotEmpty(key))
-        {
-            try
-            {
-                return Long.parseLong(getProperty(key));
-            }
-            catch(NumberFormatException e)
-            {
-                return defaultValue;
-            }
-        }
-        return defaultValue;
+        Long value = getParsedProperty(key, PropertyValueParsers.LongValue);
+        return (value != null) ? value : Long.valueOf(defaultValue);
     }
 
 
@@ -335,18 +1201,8 @@ public class ConfigurationRegistry extends OrionProperties
 
     public Float getFloatProp(String key, float defaultValue)
     {
-        if(keyIsNotEmpty(key))
-        {
-            try
-            {
-                return Float.parseFloat(getProperty(key));
-            }
-            catch(NumberFormatException e)
-            {
-                return defaultValue;
-            }
-        }
-        return defaultValue;
+        Float value = getParsedProperty(key, PropertyValueParsers.FloatValue);
+        return (value != null) ? value : Float.valueOf(defaultValue);
     }
 
 
@@ -358,18 +1214,8 @@ public class ConfigurationRegistry extends OrionProperties
 
     public Double getDoubleProp(String key, double defaultValue)
     {
-        if(keyIsNotEmpty(key))
-        {
-            try
-            {
-                return Double.parseDouble(getProperty(key));
-            }
-            catch(NumberFormatException e)
-            {
-                return defaultValue;
-            }
-        }
-        return defaultValue;
+        Double value = getParsedProperty(key, PropertyValueParsers.DoubleValue);
+        return (value != null) ? value : Double.valueOf(defaultValue);
     }
 
 
@@ -381,18 +1227,8 @@ public class ConfigurationRegistry extends OrionProperties
 
     public BigDecimal getBigDecimalProp(String key, BigDecimal defaultValue)
     {
-        if(keyIsNotEmpty(key))
-        {
-            try
-            {
-                return new BigDecimal(getProperty(key));
-            }
-            catch(NumberFormatException e)
-            {
-                return defaultValue;
-            }
-        }
-        return defaultValue;
+        BigDecimal value = getParsedProperty(key, PropertyValueParsers.BigDecimalValue);
+        return (value != null) ? value : defaultValue;
     }
 
 
@@ -404,11 +1240,46 @@ public class ConfigurationRegistry extends OrionProperties
 
     public Boolean getBooleanProp(String key, boolean defaultValue)
     {
-        if(keyIsNotEmpty(key))
-        {
-            return Boolean.parseBoolean(getProperty(key));
-        }
-        return defaultValue;
+        Boolean value = getParsedProperty(key, PropertyValueParsers.BooleanValue);
+        return (value != null) ? value : Boolean.valueOf(defaultValue);
+    }
+
+
+    /**
+     * @return the property converted by the given parser, or null if it is missing or cannot be converted.
+     * The result is cached until the property changes, so pass the same parser instance every time.
+     */
+    public <T> T getConvertedProp(String key, PropertyValueParser<T> parser)
+    {
+        return getParsedProperty(key, parser);
+    }
+
+
+    public int getInt(String key, int defaultValue)
+    {
+        Integer value = getParsedProperty(key, PropertyValueParsers.IntegerValue);
+        return (value != null) ? value : defaultValue;
+    }
+
+
+    public long getLong(String key, long defaultValue)
+    {
+        Long value = getParsedProperty(key, PropertyValueParsers.LongValue);
+        return (value != null) ? value : defaultValue;
+    }
+
+
+    public double getDouble(String key, double defaultValue)
+    {
+        Double value = getParsedProperty(key, PropertyValueParsers.DoubleValue);
+        return (value != null) ? value : defaultValue;
+    }
+
+
+    public boolean getBool(String key, boolean defaultValue)
+    {
+        Boolean value = getParsedProperty(key, PropertyValueParsers.BooleanValue);
+        return (value != null) ? value : defaultValue;
     }
 
 
@@ -422,16 +1293,33 @@ public class ConfigurationRegistry extends OrionProperties
     {
         if(keyIsNotEmpty(key))
         {
-            String value = getProperty(key);
-            if(value.length() == 1)
+            PropertyValue value = lookup(key);
+            if(value != null && value.getString() != null)
             {
-                return Character.valueOf(value.toCharArray()[0]);
-            }
-            else
-            {
-                throw new InvalidConfigurationPropertyException(String.format("The property value '{}', cannot be converted to a character object.", value));
+                Character character = value.getParsedValue(PropertyValueParsers.CharacterValue);
+                if(character == null)
+                {
+                    throw new InvalidConfigurationPropertyException("The property value '%s', cannot be converted to a character object.", value.getString());
+                }
+                return character;
             }
         }
         return defaultValue;
     }
-}
\ No newline at end of file
+
+
+    /**
+     * keeps the key of its handle, so that it can be removed from handlesByKey once the handle has been collected
+     */
+    private static final class HandleReference extends WeakReference<PropertyHandle>
+    {
+        private final String key;
+
+
+        private HandleReference(PropertyHandle handle, ReferenceQueue<PropertyHandle> collectedHandles)
+        {
+            super(handle, collectedHandles);
+            this.key = handle.getKey();
+        }
+    }
+}
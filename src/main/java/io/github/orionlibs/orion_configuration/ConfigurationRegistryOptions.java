@@ -0,0 +1,84 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.concurrent.Executor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * settings a ConfigurationRegistry is created with
+ */
+@AllArgsConstructor
+@Builder
+@Getter
+public class ConfigurationRegistryOptions
+{
+    /**
+     * keeps a value-to-keys index so that getKeyFromValue, getKeysFromValue
+     * and doesValueExist do not scan every property. Turn it off to save memory.
+     */
+    @Builder.Default
+    private boolean reverseIndexEnabled = true;
+    /**
+     * keeps long or escaped values loaded by loadProps(Path) undecoded until they are first read, so values that are never
+     * read cost neither the decoding nor the escapes. Their bytes are copied out of the file into heap chunks that hold
+     * nothing but such values; a chunk is kept as long as one of its values is undecoded, and later edits of the file do not change it.
+     * It only takes effect while the reverse index, property references and compact storage are disabled, because they need every value.
+     */
+    @Builder.Default
+    private boolean lazyDecodedValuesEnabled = false;
+    /**
+     * resolves ${key} references in string values when they are written, e.g. db.url=jdbc:${db.host}:${db.port},
+     * so the registry holds and returns the resolved values. A write to a key resolves again only the values
+     * that depend on it, and a write that would make references form a cycle throws an IllegalArgumentException.
+     * A single write changes its dependent values in place after its own, while update publishes them with the batch.
+     */
+    @Builder.Default
+    private boolean propertyReferencesEnabled = false;
+    /**
+     * stores the properties in open-addressing tables, with the keys as UTF-8 bytes in one shared array
+     * and repeated values shared, instead of a ConcurrentHashMap, for registries of a million keys or more.
+     * Reads stay lock-free and allocation-free, while iterating the registry creates the key Strings,
+     * and getPropsWithPrefix scans the keys. Disable the reverse index too, since it holds every key and value.
+     */
+    @Builder.Default
+    private boolean compactStorageEnabled = false;
+    /**
+     * what a new registry does with the system properties
+     */
+    @Builder.Default
+    private SystemPropertiesMode systemPropertiesMode = SystemPropertiesMode.Copied;
+    /**
+     * runs ConfigurationChangeListener notifications. Defaults to a new virtual thread per batch.
+     */
+    @Builder.Default
+    private Executor changeListenerExecutor = task -> Thread.ofVirtual().name("orion-configuration-change-listener").start(task);
+
+
+    public static ConfigurationRegistryOptions of()
+    {
+        return ConfigurationRegistryOptions.builder().build();
+    }
+
+
+    public enum SystemPropertiesMode
+    {
+        /**
+         * loaded into the registry when it is created, which costs a copy of every system property
+         */
+        Copied,
+        /**
+         * not copied: getProp, the typed getters, doesPropExist and handles look a key the registry
+         * does not hold up with System.getProperty, while bulk reads such as asMap, forEachProp,
+         * getPropsWithPrefix and the reverse lookups only see the registry's own properties.
+         * The registry's own value of a key hides the system property, and deleting it uncovers it again.
+         * A handle reads the system property when it is bound and when its key is written to or deleted from
+         * the registry, not when the system property itself changes.
+         */
+        Fallback,
+        /**
+         * ignored
+         */
+        Skipped
+    }
+}
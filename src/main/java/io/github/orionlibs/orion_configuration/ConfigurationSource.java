@@ -0,0 +1,100 @@
+package io.github.orionlibs.orion_configuration;
+
+import io.github.orionlibs.orion_assert.ResourceException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * a set of properties that ConfigurationRegistry.loadAll parses alongside other sources.
+ * load is called on a loader thread and must not touch the registry.
+ * Classpath resources and files are read as ISO-8859-1 unless given a charset, which can be
+ * US-ASCII, ISO-8859-1 or UTF-8; the factories throw an IllegalArgumentException for any other.
+ */
+@FunctionalInterface
+public interface ConfigurationSource
+{
+    Map<String, ?> load() throws ResourceException;
+
+
+    static ConfigurationSource ofClasspathResource(Class<?> classToUseForClasspath, String configurationFilePath)
+    {
+        return ofClasspathResource(classToUseForClasspath, configurationFilePath, StandardCharsets.ISO_8859_1);
+    }
+
+
+    static ConfigurationSource ofClasspathResource(Class<?> classToUseForClasspath, String configurationFilePath, Charset charset)
+    {
+        PropertiesParser parser = PropertiesParser.of(charset);
+        return () ->
+        {
+            InputStream propertiesFileInput = classToUseForClasspath.getResourceAsStream(configurationFilePath);
+            if(propertiesFileInput == null)
+            {
+                throw new ResourceException("Cannot find %s on the classpath of %s.", configurationFilePath, classToUseForClasspath.getName());
+            }
+            return load(propertiesFileInput, configurationFilePath, parser);
+        };
+    }
+
+
+    static ConfigurationSource ofFile(Path propertiesFile)
+    {
+        return ofFile(propertiesFile, StandardCharsets.ISO_8859_1);
+    }
+
+
+    static ConfigurationSource ofFile(Path propertiesFile, Charset charset)
+    {
+        PropertiesParser parser = PropertiesParser.of(charset);
+        return () ->
+        {
+            InputStream propertiesFileInput;
+            try
+            {
+                propertiesFileInput = Files.newInputStream(propertiesFile);
+            }
+            catch(IOException e)
+            {
+                throw new ResourceException(e, "Cannot open %s.", propertiesFile);
+            }
+            return load(propertiesFileInput, propertiesFile.toString(), parser);
+        };
+    }
+
+
+    static ConfigurationSource ofProperties(Properties properties)
+    {
+        return () ->
+        {
+            Map<String, Object> propertiesByKey = new HashMap<>();
+            properties.forEach((key, value) -> propertiesByKey.put(key.toString(), value));
+            return propertiesByKey;
+        };
+    }
+
+
+    private static Map<String, String> load(InputStream propertiesFileInput, String name, PropertiesParser parser) throws ResourceException
+    {
+        Map<String, String> properties = new HashMap<>();
+        try(propertiesFileInput)
+        {
+            parser.parse(propertiesFileInput, properties::put);
+        }
+        catch(IOException e)
+        {
+            throw new ResourceException(e, "Cannot close %s.", name);
+        }
+        catch(ResourceException e)
+        {
+            throw new ResourceException(e, "Cannot load properties from %s: %s", name, e.getMessage());
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * a read-only view of the properties of a ConfigurationRegistry under one namespace.
+ * Keys are relative to the namespace, and every read goes to the registry, so the view follows its writes.
+ */
+public class ConfigurationSubRegistry
+{
+    private final ConfigurationRegistry registry;
+    private final String prefix;
+
+
+    ConfigurationSubRegistry(ConfigurationRegistry registry, String namespace)
+    {
+        this.registry = registry;
+        this.prefix = (namespace.isEmpty() || namespace.endsWith(".")) ? namespace : namespace + ".";
+    }
+
+
+    /**
+     * @return the namespace with its trailing dot, e.g. "db.pool."
+     */
+    public String getPrefix()
+    {
+        return prefix;
+    }
+
+
+    public boolean doesPropExist(String key)
+    {
+        return registry.doesPropExist(prefix + key);
+    }
+
+
+    public String getProp(String key)
+    {
+        return registry.getProp(prefix + key);
+    }
+
+
+    public String getProp(String key, String defaultValue)
+    {
+        return registry.getProp(prefix + key, defaultValue);
+    }
+
+
+    public Object getObjectProp(String key)
+    {
+        return registry.getObjectProp(prefix + key);
+    }
+
+
+    public List<?> getListProp(String key)
+    {
+        return registry.getListProp(prefix + key);
+    }
+
+
+    public Integer getIntegerProp(String key)
+    {
+        return registry.getIntegerProp(prefix + key);
+    }
+
+
+    public Long getLongProp(String key)
+    {
+        return registry.getLongProp(prefix + key);
+    }
+
+
+    public Double getDoubleProp(String key)
+    {
+        return registry.getDoubleProp(prefix + key);
+    }
+
+
+    public BigDecimal getBigDecimalProp(String key)
+    {
+        return registry.getBigDecimalProp(prefix + key);
+    }
+
+
+    public Boolean getBooleanProp(String key)
+    {
+        return registry.getBooleanProp(prefix + key);
+    }
+
+
+    public <T> T getConvertedProp(String key, PropertyValueParser<T> parser)
+    {
+        return registry.getConvertedProp(prefix + key, parser);
+    }
+
+
+    public int getInt(String key, int defaultValue)
+    {
+        return registry.getInt(prefix + key, defaultValue);
+    }
+
+
+    public long getLong(String key, long defaultValue)
+    {
+        return registry.getLong(prefix + key, defaultValue);
+    }
+
+
+    public double getDouble(String key, double defaultValue)
+    {
+        return registry.getDouble(prefix + key, defaultValue);
+    }
+
+
+    public boolean getBool(String key, boolean defaultValue)
+    {
+        return registry.getBool(prefix + key, defaultValue);
+    }
+
+
+    /**
+     * @return the properties under the namespace, keyed relative to it, in key order
+     */
+    public Map<String, String> getPropsAsMap()
+    {
+        Map<String, String> props = new LinkedHashMap<>();
+        registry.getPropsWithPrefix(prefix).forEach((key, value) -> props.put(key.substring(prefix.length()), value));
+        return props;
+    }
+
+
+    public <T> T bind(Class<T> type) throws InvalidConfigurationPropertyException
+    {
+        return registry.bind(prefix, type);
+    }
+
+
+    public ConfigurationSubRegistry subRegistry(String namespace)
+    {
+        return new ConfigurationSubRegistry(registry, prefix + namespace);
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.orionlibs.orion_configuration;
+
+/**
+ * a double property that falls back to its default value when the key is missing or not a valid double
+ */
+public final class DoublePropertyHandle extends PropertyHandle
+{
+    private final double defaultValue;
+    private volatile double value;
+
+
+    DoublePropertyHandle(String key, double defaultValue)
+    {
+        super(key, defaultValue);
+        this.defaultValue = defaultValue;
+        this.value = defaultValue;
+    }
+
+
+    public double get()
+    {
+        return value;
+    }
+
+
+    public double getDefaultValue()
+    {
+        return defaultValue;
+    }
+
+
+    @Override
+    void refresh(PropertyValue propertyValue)
+    {
+        Double parsedValue = (propertyValue != null) ? propertyValue.getParsedValue(PropertyValueParsers.DoubleValue) : null;
+        value = (parsedValue != null) ? parsedValue : defaultValue;
+    }
+}
@@ -2,11 +2,19 @@ package io.github.orionlibs.orion_configuration;
 
 import io.github.orionlibs.orion_assert.Assert;
 import io.github.orionlibs.orion_assert.ResourceException;
+import io.github.orionlibs.orion_configuration.tasks.ProcessStaticVariableNameTask;
 import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public class InMemoryConfigurationService
 {
@@ -23,16 +31,49 @@ public class InMemoryConfigurationService
     public static void registerClassStaticVariables(Map<String, Object> constantsMapper)
     {
         Assert.notNull(constantsMapper, "The given constantsMapper input cannot be null.");
-        constantsMapper.entrySet()
+        configurationRegistry.update(batch -> constantsMapper.entrySet()
                         .stream()
                         .filter(entry -> entry.getKey() != null && !entry.getKey().isEmpty())
-                        .forEach(entry -> configurationRegistry.registerObjectProp(entry.getKey(), entry.getValue()));
+                        .forEach(entry -> batch.registerObjectProp(entry.getKey(), entry.getValue())));
+    }
+
+
+    /**
+     * registers the public static fields of the given classes in one batch, each under the key
+     * ProcessStaticVariableNameTask makes of its name, e.g. MAX_POOL_SIZE under max.pool.size.
+     * Nothing is registered if one of them cannot be read.
+     * @throws IllegalArgumentException if a public static field cannot be read, e.g. because its class is not public
+     */
+    public static void registerClassConstants(Class<?>... classes)
+    {
+        Assert.notNull(classes, "The given classes input cannot be null.");
+        configurationRegistry.update(batch ->
+        {
+            for(Class<?> classWithConstants : classes)
+            {
+                for(Field field : classWithConstants.getDeclaredFields())
+                {
+                    int modifiers = field.getModifiers();
+                    if(Modifier.isPublic(modifiers) && Modifier.isStatic(modifiers) && !field.isSynthetic())
+                    {
+                        try
+                        {
+                            batch.registerObjectProp(ProcessStaticVariableNameTask.run(field.getName()), field.get(null));
+                        }
+                        catch(IllegalAccessException e)
+                        {
+                            throw new IllegalArgumentException("Cannot read the constant " + field, e);
+                        }
+                    }
+                }
+            }
+        });
     }
 
 
     public static boolean doesValueExist(String value)
     {
-        return configurationRegistry.containsValue(value);
+        return configurationRegistry.doesValueExist(value);
     }
 
 
@@ -79,9 +120,66 @@ public class InMemoryConfigurationService
     }
 
 
+    /**
+     * @param charset US-ASCII, ISO-8859-1 or UTF-8
+     */
+    public static void loadProps(InputStream propertiesFileInput, Charset charset) throws ResourceException
+    {
+        configurationRegistry.loadProps(propertiesFileInput, charset);
+    }
+
+
+    public static void loadProps(Path propertiesFile) throws ResourceException
+    {
+        configurationRegistry.loadProps(propertiesFile);
+    }
+
+
+    /**
+     * @param charset US-ASCII, ISO-8859-1 or UTF-8
+     */
+    public static void loadProps(Path propertiesFile, Charset charset) throws ResourceException
+    {
+        configurationRegistry.loadProps(propertiesFile, charset);
+    }
+
+
+    /**
+     * loads the file and reloads the keys that change in it, see ConfigurationFileReloader
+     */
+    public static void watchProps(Path propertiesFile) throws ResourceException
+    {
+        FileReloaderHolder.fileReloader.watch(propertiesFile);
+    }
+
+
     public static void loadProps(ConfigurationRegistry configurationRegistry)
     {
-        configurationRegistry.loadProps(configurationRegistry);
+        InMemoryConfigurationService.configurationRegistry.loadProps(configurationRegistry);
+    }
+
+
+    public static void loadAll(List<ConfigurationSource> sources) throws ResourceException
+    {
+        configurationRegistry.loadAll(sources);
+    }
+
+
+    public static void loadAll(List<ConfigurationSource> sources, Executor executor) throws ResourceException
+    {
+        configurationRegistry.loadAll(sources, executor);
+    }
+
+
+    public static void update(Consumer<ConfigurationBatch> changes)
+    {
+        configurationRegistry.update(changes);
+    }
+
+
+    public static ConfigurationRegistry snapshot()
+    {
+        return configurationRegistry.snapshot();
     }
 
 
@@ -139,14 +237,53 @@ public class InMemoryConfigurationService
     }
 
 
+    /**
+     * @return a modifiable copy of the properties; asMap and forEachProp read them without copying
+     */
     public static Map<String, String> getPropsAsMap()
     {
-        Map<String, String> entries = new HashMap<>();
-        configurationRegistry.entrySet().forEach(entry -> entries.put(entry.getKey().toString(), entry.getValue().toString()));
+        Map<String, String> entries = HashMap.newHashMap(configurationRegistry.size());
+        configurationRegistry.forEachProp(entries::put);
         return entries;
     }
 
 
+    public static Map<String, String> asMap()
+    {
+        return configurationRegistry.asMap();
+    }
+
+
+    public static Map<String, String> getPropsWithPrefix(String prefix)
+    {
+        return configurationRegistry.getPropsWithPrefix(prefix);
+    }
+
+
+    public static <T> T bind(String prefix, Class<T> type) throws InvalidConfigurationPropertyException
+    {
+        return configurationRegistry.bind(prefix, type);
+    }
+
+
+    public static ConfigurationSubRegistry subRegistry(String namespace)
+    {
+        return configurationRegistry.subRegistry(namespace);
+    }
+
+
+    public static void forEachProp(BiConsumer<String, String> action)
+    {
+        configurationRegistry.forEachProp(action);
+    }
+
+
+    public static void forEachObjectProp(BiConsumer<String, Object> action)
+    {
+        configurationRegistry.forEachObjectProp(action);
+    }
+
+
     public static boolean containsPropKey(String key)
     {
         return configurationRegistry.doesPropExist(key);
@@ -155,13 +292,13 @@ public class InMemoryConfigurationService
 
     public static boolean containsPropValue(String value)
     {
-        return configurationRegistry.contains(value);
+        return configurationRegistry.doesValueExist(value);
     }
 
 
     public static boolean containsPropObjectValue(Object value)
     {
-        return configurationRegistry.contains(value);
+        return configurationRegistry.doesObjectValueExist(value);
     }
 
 
@@ -249,6 +386,12 @@ public class InMemoryConfigurationService
     }
 
 
+    public static String getPropWithPlaceholderValues(String key, String... propertyPlaceholders)
+    {
+        return configurationRegistry.getPropWithPlaceholderValues(key, propertyPlaceholders);
+    }
+
+
     public static String getPropWithPlaceholders(String key, String defaultValue, List<String> propertyPlaceholders)
     {
         return configurationRegistry.getPropWithPlaceholders(key, defaultValue, propertyPlaceholders);
@@ -351,6 +494,36 @@ public class InMemoryConfigurationService
     }
 
 
+    public static <T> T getConvertedProp(String key, PropertyValueParser<T> parser)
+    {
+        return configurationRegistry.getConvertedProp(key, parser);
+    }
+
+
+    public static int getInt(String key, int defaultValue)
+    {
+        return configurationRegistry.getInt(key, defaultValue);
+    }
+
+
+    public static long getLong(String key, long defaultValue)
+    {
+        return configurationRegistry.getLong(key, defaultValue);
+    }
+
+
+    public static double getDouble(String key, double defaultValue)
+    {
+        return configurationRegistry.getDouble(key, defaultValue);
+    }
+
+
+    public static boolean getBool(String key, boolean defaultValue)
+    {
+        return configurationRegistry.getBool(key, defaultValue);
+    }
+
+
     public static Character getCharacterProp(String key) throws InvalidConfigurationPropertyException
     {
         return configurationRegistry.getCharacterProp(key);
@@ -361,4 +534,79 @@ public class InMemoryConfigurationService
     {
         return configurationRegistry.getCharacterProp(key, defaultValue);
     }
-}
\ No newline at end of file
+
+
+    public static void addChangeListener(String key, ConfigurationChangeListener listener)
+    {
+        configurationRegistry.addChangeListener(key, listener);
+    }
+
+
+    public static void addChangeListener(String key, ConfigurationChangeListener listener, Executor executor)
+    {
+        configurationRegistry.addChangeListener(key, listener, executor);
+    }
+
+
+    public static void addPrefixChangeListener(String prefix, ConfigurationChangeListener listener)
+    {
+        configurationRegistry.addPrefixChangeListener(prefix, listener);
+    }
+
+
+    public static void addPrefixChangeListener(String prefix, ConfigurationChangeListener listener, Executor executor)
+    {
+        configurationRegistry.addPrefixChangeListener(prefix, listener, executor);
+    }
+
+
+    public static void removeChangeListener(String key, ConfigurationChangeListener listener)
+    {
+        configurationRegistry.removeChangeListener(key, listener);
+    }
+
+
+    public static void removePrefixChangeListener(String prefix, ConfigurationChangeListener listener)
+    {
+        configurationRegistry.removePrefixChangeListener(prefix, listener);
+    }
+
+
+    public static IntPropertyHandle intHandle(String key, int defaultValue)
+    {
+        return configurationRegistry.intHandle(key, defaultValue);
+    }
+
+
+    public static LongPropertyHandle longHandle(String key, long defaultValue)
+    {
+        return configurationRegistry.longHandle(key, defaultValue);
+    }
+
+
+    public static DoublePropertyHandle doubleHandle(String key, double defaultValue)
+    {
+        return configurationRegistry.doubleHandle(key, defaultValue);
+    }
+
+
+    public static BooleanPropertyHandle booleanHandle(String key, boolean defaultValue)
+    {
+        return configurationRegistry.booleanHandle(key, defaultValue);
+    }
+
+
+    public static StringPropertyHandle stringHandle(String key, String defaultValue)
+    {
+        return configurationRegistry.stringHandle(key, defaultValue);
+    }
+
+
+    /**
+     * starts the reloader thread only once a file is watched
+     */
+    private static final class FileReloaderHolder
+    {
+        private static final ConfigurationFileReloader fileReloader = ConfigurationFileReloader.of(configurationRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.orionlibs.orion_configuration;
+
+/**
+ * an int property that falls back to its default value when the key is missing or not a valid int
+ */
+public final class IntPropertyHandle extends PropertyHandle
+{
+    private final int defaultValue;
+    private volatile int value;
+
+
+    IntPropertyHandle(String key, int defaultValue)
+    {
+        super(key, defaultValue);
+        this.defaultValue = defaultValue;
+        this.value = defaultValue;
+    }
+
+
+    public int get()
+    {
+        return value;
+    }
+
+
+    public int getDefaultValue()
+    {
+        return defaultValue;
+    }
+
+
+    @Override
+    void refresh(PropertyValue propertyValue)
+    {
+        Integer parsedValue = (propertyValue != null) ? propertyValue.getParsedValue(PropertyValueParsers.IntegerValue) : null;
+        value = (parsedValue != null) ? parsedValue : defaultValue;
+    }
+}
@@ -0,0 +1,237 @@
+package io.github.orionlibs.orion_configuration;
+
+import io.github.orionlibs.orion_assert.ResourceException;
+import io.github.orionlibs.orion_configuration.tasks.ProcessStaticVariableNameWithUnderscoresTask;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * configuration assembled from the ConfigurationLayers, which resolves their properties into one
+ * ConfigurationRegistry that holds, for every key, the value of the highest layer that has it.
+ * Reads go to that registry, so they are a single lookup however many layers there are.
+ * Each layer keeps its own properties. A write to a layer re-resolves only the keys it touches
+ * that no higher layer hides, and publishes their new values in one batch, so the registry's
+ * listeners, handles and snapshots see a layered change like any other update.
+ * If the registry rejects that batch, e.g. because of a reference cycle, the layer is left as it was.
+ * Writing to the registry directly bypasses the layers: such a value lasts until a layer
+ * write re-resolves its key.
+ */
+public class LayeredConfiguration
+{
+    private static final ConfigurationLayer[] Layers = ConfigurationLayer.values();
+    private final ConfigurationRegistry registry;
+    /**
+     * the properties of each layer, by ordinal; guarded by layersLock
+     */
+    private final List<Map<String, Object>> propertiesByLayer = new ArrayList<>(Layers.length);
+    private final Object layersLock = new Object();
+
+
+    /**
+     * creates the registry with the given options and leaves every layer empty
+     */
+    public LayeredConfiguration(ConfigurationRegistryOptions options)
+    {
+        this.registry = new ConfigurationRegistry(options, ConfigurationRegistryOptions.SystemPropertiesMode.Skipped);
+        for(int i = 0; i < Layers.length; i++)
+        {
+            propertiesByLayer.add(new HashMap<>());
+        }
+    }
+
+
+    /**
+     * @return a LayeredConfiguration with the system properties loaded into their layer
+     */
+    public static LayeredConfiguration of()
+    {
+        LayeredConfiguration configuration = new LayeredConfiguration(ConfigurationRegistryOptions.of());
+        configuration.loadSystemProperties();
+        return configuration;
+    }
+
+
+    public ConfigurationRegistry getRegistry()
+    {
+        return registry;
+    }
+
+
+    /**
+     * a null value removes the key from the layer
+     */
+    public void setProp(ConfigurationLayer layer, String key, Object value)
+    {
+        Map<String, Object> change = new HashMap<>();
+        change.put(key, value);
+        changeLayer(layer, change, false);
+    }
+
+
+    public void deleteProp(ConfigurationLayer layer, String key)
+    {
+        setProp(layer, key, null);
+    }
+
+
+    /**
+     * adds the properties to the layer, keeping its other keys
+     */
+    public void loadProps(ConfigurationLayer layer, Map<String, ?> properties)
+    {
+        changeLayer(layer, properties, false);
+    }
+
+
+    /**
+     * adds the properties of the source to the layer, e.g. the files of ConfigurationLayer.Files in the order
+     * they are loaded, so that a later file overrides an earlier one
+     */
+    public void loadProps(ConfigurationLayer layer, ConfigurationSource source) throws ResourceException
+    {
+        changeLayer(layer, source.load(), false);
+    }
+
+
+    /**
+     * makes the properties the whole content of the layer: its keys that are not among them are removed
+     */
+    public void replaceLayer(ConfigurationLayer layer, Map<String, ?> properties)
+    {
+        changeLayer(layer, properties, true);
+    }
+
+
+    public void loadSystemProperties()
+    {
+        Map<String, Object> systemProperties = new HashMap<>();
+        System.getProperties().forEach((key, value) -> systemProperties.put(key.toString(), value));
+        replaceLayer(ConfigurationLayer.SystemProperties, systemProperties);
+    }
+
+
+    /**
+     * replaces the environment layer with the environment variables, each under the key
+     * ProcessStaticVariableNameWithUnderscoresTask makes of its name, e.g. DB_HOST under db.host
+     */
+    public void loadEnvironmentVariables()
+    {
+        Map<String, Object> environmentVariables = new HashMap<>();
+        System.getenv().forEach((name, value) -> environmentVariables.put(ProcessStaticVariableNameWithUnderscoresTask.toKey(name), value));
+        replaceLayer(ConfigurationLayer.Environment, environmentVariables);
+    }
+
+
+    public Object getLayerProp(ConfigurationLayer layer, String key)
+    {
+        synchronized(layersLock)
+        {
+            return propertiesByLayer.get(layer.ordinal()).get(key);
+        }
+    }
+
+
+    /**
+     * @return the layer whose value the registry holds for the key, or null if no layer has it
+     */
+    public ConfigurationLayer getWinningLayer(String key)
+    {
+        synchronized(layersLock)
+        {
+            for(int i = Layers.length - 1; i >= 0; i--)
+            {
+                if(propertiesByLayer.get(i).containsKey(key))
+                {
+                    return Layers[i];
+                }
+            }
+            return null;
+        }
+    }
+
+
+    private void changeLayer(ConfigurationLayer layer, Map<String, ?> changes, boolean replace)
+    {
+        synchronized(layersLock)
+        {
+            Map<String, Object> layerProperties = propertiesByLayer.get(layer.ordinal());
+            Collection<String> touchedKeys = changes.keySet();
+            if(replace)
+            {
+                Set<String> replacedKeys = new HashSet<>(layerProperties.keySet());
+                replacedKeys.addAll(changes.keySet());
+                touchedKeys = replacedKeys;
+            }
+            //the values the touched keys had in the layer, to restore if the registry rejects the change
+            Map<String, Object> previousValues = new HashMap<>();
+            for(String key : touchedKeys)
+            {
+                previousValues.put(key, layerProperties.get(key));
+            }
+            if(replace)
+            {
+                layerProperties.clear();
+            }
+            changes.forEach((key, value) -> setLayerValue(layerProperties, key, value));
+            Collection<String> keysToResolve = touchedKeys;
+            try
+            {
+                registry.update(batch ->
+                {
+                    for(String key : keysToResolve)
+                    {
+                        resolve(key, layer.ordinal(), batch);
+                    }
+                });
+            }
+            catch(RuntimeException | Error e)
+            {
+                previousValues.forEach((key, value) -> setLayerValue(layerProperties, key, value));
+                throw e;
+            }
+        }
+    }
+
+
+    /**
+     * a null value removes the key from the layer
+     */
+    private static void setLayerValue(Map<String, Object> layerProperties, String key, Object value)
+    {
+        if(value != null)
+        {
+            layerProperties.put(key, value);
+        }
+        else
+        {
+            layerProperties.remove(key);
+        }
+    }
+
+
+    /**
+     * puts the winning value of a key changed in the given layer into the batch.
+     * Nothing is put if a higher layer hides the key, since its winner then stays the same.
+     */
+    private void resolve(String key, int changedLayer, ConfigurationBatch batch)
+    {
+        for(int i = Layers.length - 1; i >= 0; i--)
+        {
+            Object value = propertiesByLayer.get(i).get(key);
+            if(value != null)
+            {
+                if(i <= changedLayer)
+                {
+                    batch.registerObjectProp(key, value);
+                }
+                return;
+            }
+        }
+        batch.deleteProp(key);
+    }
+}
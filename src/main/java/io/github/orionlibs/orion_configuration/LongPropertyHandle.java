@@ -0,0 +1,38 @@
+package io.github.orionlibs.orion_configuration;
+
+/**
+ * a long property that falls back to its default value when the key is missing or not a valid long
+ */
+public final class LongPropertyHandle extends PropertyHandle
+{
+    private final long defaultValue;
+    private volatile long value;
+
+
+    LongPropertyHandle(String key, long defaultValue)
+    {
+        super(key, defaultValue);
+        this.defaultValue = defaultValue;
+        this.value = defaultValue;
+    }
+
+
+    public long get()
+    {
+        return value;
+    }
+
+
+    public long getDefaultValue()
+    {
+        return defaultValue;
+    }
+
+
+    @Override
+    void refresh(PropertyValue propertyValue)
+    {
+        Long parsedValue = (propertyValue != null) ? propertyValue.getParsedValue(PropertyValueParsers.LongValue) : null;
+        value = (parsedValue != null) ? parsedValue : defaultValue;
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * a pattern like "user {0} has {1} items" compiled once into literal text and argument slots.
+ * It follows the MessageFormat rules for quotes ('' and '...') and for arguments missing
+ * from the call, but only supports plain {n} arguments; compile returns null for anything
+ * else so that callers fall back to MessageFormat.
+ */
+final class MessageTemplate
+{
+    private final String[] literals;
+    private final int[] argumentIndexes;
+    private final int literalsLength;
+
+
+    private MessageTemplate(String[] literals, int[] argumentIndexes, int literalsLength)
+    {
+        this.literals = literals;
+        this.argumentIndexes = argumentIndexes;
+        this.literalsLength = literalsLength;
+    }
+
+
+    static MessageTemplate compile(String pattern)
+    {
+        List<String> literals = new ArrayList<>();
+        List<Integer> argumentIndexes = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int literalsLength = 0;
+        boolean inQuote = false;
+        int length = pattern.length();
+        for(int i = 0; i < length; i++)
+        {
+            char character = pattern.charAt(i);
+            if(character == '\'')
+            {
+                if(i + 1 < length && pattern.charAt(i + 1) == '\'')
+                {
+                    literal.append('\'');
+                    i++;
+                }
+                else
+                {
+                    inQuote = !inQuote;
+                }
+            }
+            else if(character == '{' && !inQuote)
+            {
+                int argumentIndex = 0;
+                int j = i + 1;
+                while(j < length && j - i <= 9 && pattern.charAt(j) >= '0' && pattern.charAt(j) <= '9')
+                {
+                    argumentIndex = argumentIndex * 10 + (pattern.charAt(j) - '0');
+                    j++;
+                }
+                if(j == i + 1 || j == length || pattern.charAt(j) != '}')
+                {
+                    return null;
+                }
+                literals.add(literal.toString());
+                literalsLength += literal.length();
+                literal.setLength(0);
+                argumentIndexes.add(argumentIndex);
+                i = j;
+            }
+            else
+            {
+                literal.append(character);
+            }
+        }
+        literals.add(literal.toString());
+        literalsLength += literal.length();
+        return new MessageTemplate(literals.toArray(new String[0]),
+                        argumentIndexes.stream().mapToInt(Integer::intValue).toArray(),
+                        literalsLength);
+    }
+
+
+    String format(Object[] arguments)
+    {
+        StringBuilder result = new StringBuilder(literalsLength + 16 * argumentIndexes.length);
+        for(int i = 0; i < argumentIndexes.length; i++)
+        {
+            result.append(literals[i]);
+            int argumentIndex = argumentIndexes[i];
+            if(argumentIndex < arguments.length)
+            {
+                result.append(arguments[argumentIndex]);
+            }
+            else
+            {
+                result.append('{').append(argumentIndex).append('}');
+            }
+        }
+        return result.append(literals[argumentIndexes.length]).toString();
+    }
+}
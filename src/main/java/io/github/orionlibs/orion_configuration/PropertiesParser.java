@@ -0,0 +1,619 @@
+package io.github.orionlibs.orion_configuration;
+
+import io.github.orionlibs.orion_assert.ResourceException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * streaming parser of .properties files with the semantics of Properties.load: comments,
+ * blank lines, =, : and whitespace separators, escapes and line continuations.
+ * It scans the raw bytes in large chunks and only builds a String per key and value, so nothing
+ * is copied char by char or put into a synchronized map. Unescaped values are deduplicated
+ * through a small cache, since generated files repeat the same values many times.
+ * Malformed unicode escapes are reported with their line and column.
+ * ConfigurationRegistry.loadProps(Path) parses memory-mapped files with it.
+ * An instance can be shared by threads; each parse call has its own state.
+ */
+public class PropertiesParser
+{
+    private static final int BufferSize = 1 << 16;
+    private static final int ValueCacheSize = 4096;
+    private static final int MaximumCachedValueLength = 64;
+    /**
+     * chunks double from the first size up to the maximum, so that small files keep small chunks
+     */
+    private static final int FirstArenaChunkSize = 1 << 12;
+    private static final int MaximumArenaChunkSize = 1 << 18;
+    /**
+     * longer values get an array of their own, so that a full chunk wastes less than this much
+     */
+    private static final int MaximumArenaValueLength = MaximumArenaChunkSize / 8;
+    /**
+     * the charsets in which every ASCII char is a single byte that no other char contains
+     */
+    private static final Set<Charset> SupportedCharsets = Set.of(StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_8);
+    private final Charset charset;
+    /**
+     * true when every byte decodes to the char with the same value, so cached values
+     * can be compared to the bytes directly
+     */
+    private final boolean singleByteCharset;
+
+
+    /**
+     * @throws IllegalArgumentException if the charset is not US-ASCII, ISO-8859-1 or UTF-8. Separators, escapes and
+     * line ends are found as single bytes, which charsets like UTF-16, Shift_JIS or GBK do not keep apart from other chars.
+     */
+    public PropertiesParser(Charset charset)
+    {
+        if(!SupportedCharsets.contains(charset))
+        {
+            throw new IllegalArgumentException("Cannot parse .properties input in " + charset + ": only US-ASCII, ISO-8859-1 and UTF-8 are supported.");
+        }
+        this.charset = charset;
+        this.singleByteCharset = StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+
+    /**
+     * a parser for ISO-8859-1, which is what Properties.load(InputStream) reads
+     */
+    public static PropertiesParser of()
+    {
+        return new PropertiesParser(StandardCharsets.ISO_8859_1);
+    }
+
+
+    public static PropertiesParser of(Charset charset)
+    {
+        return new PropertiesParser(charset);
+    }
+
+
+    /**
+     * passes every key and value to properties in the order they appear in the input.
+     * The input is read to its end and left open.
+     */
+    @SuppressWarnings("unchecked")
+    public void parse(InputStream input, BiConsumer<String, String> properties) throws ResourceException
+    {
+        //only Strings are passed to properties when there is no mapped file
+        new Parse(input, null, false, (BiConsumer<String, Object>)(BiConsumer<String, ?>)properties).run();
+    }
+
+
+    /**
+     * parses a memory-mapped file. With lazyValues, values too long for the value cache, or with escapes, are passed
+     * as UndecodedTexts, whose bytes are copied into chunks that hold nothing else, so they do not keep the file
+     * or its keys and comments; shorter values take as much memory as a String.
+     */
+    void parseMapped(ByteBuffer file, boolean lazyValues, BiConsumer<String, Object> properties) throws ResourceException
+    {
+        new Parse(null, file, lazyValues, properties).run();
+    }
+
+
+    private static boolean isWhitespace(byte b)
+    {
+        return b == ' ' || b == '\t' || b == '\f';
+    }
+
+
+    private static boolean isLineTerminator(byte b)
+    {
+        return b == '\r' || b == '\n';
+    }
+
+
+    private static int hexDigitValue(int c)
+    {
+        if(c >= '0' && c <= '9')
+        {
+            return c - '0';
+        }
+        else if(c >= 'a' && c <= 'f')
+        {
+            return c - 'a' + 10;
+        }
+        else if(c >= 'A' && c <= 'F')
+        {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+
+    static String unescape(String text)
+    {
+        StringBuilder unescaped = new StringBuilder(text.length());
+        for(int i = 0; i < text.length(); i++)
+        {
+            char c = text.charAt(i);
+            if(c != '\\')
+            {
+                unescaped.append(c);
+                continue;
+            }
+            else if(++i == text.length())
+            {
+                //a backslash at the end of the input is dropped
+                break;
+            }
+            c = text.charAt(i);
+            switch(c)
+            {
+                case 'u':
+                    int codeUnit = 0;
+                    for(int digits = 0; digits < 4; digits++)
+                    {
+                        i++;
+                        while(text.charAt(i) == '\\')
+                        {
+                            i = skipContinuation(text, i + 1) + 1;
+                        }
+                        codeUnit = (codeUnit << 4) + hexDigitValue(text.charAt(i));
+                    }
+                    unescaped.append((char)codeUnit);
+                    break;
+                case 't':
+                    unescaped.append('\t');
+                    break;
+                case 'n':
+                    unescaped.append('\n');
+                    break;
+                case 'r':
+                    unescaped.append('\r');
+                    break;
+                case 'f':
+                    unescaped.append('\f');
+                    break;
+                case '\r':
+                case '\n':
+                    i = skipContinuation(text, i);
+                    break;
+                default:
+                    unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+
+    /**
+     * drops the line terminator at the given index and the indentation of the next line,
+     * returning the index of the last char dropped
+     */
+    private static int skipContinuation(String text, int terminator)
+    {
+        int i = terminator;
+        if(text.charAt(i) == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n')
+        {
+            i++;
+        }
+        while(i + 1 < text.length() && (text.charAt(i + 1) == ' ' || text.charAt(i + 1) == '\t' || text.charAt(i + 1) == '\f'))
+        {
+            i++;
+        }
+        return i;
+    }
+
+
+    /**
+     * the state of one parse call. The parse methods return the index after what they scanned,
+     * or -1 when the logical line goes on past the bytes read so far, in which case more are read
+     * and the whole logical line is parsed again.
+     */
+    private final class Parse
+    {
+        private final InputStream input;
+        private final ByteBuffer fileToRead;
+        private final boolean lazyValues;
+        private final BiConsumer<String, Object> properties;
+        private final String[] valueCache = new String[ValueCacheSize];
+        private byte[] buffer = new byte[BufferSize];
+        private int limit;
+        private boolean endOfInput;
+        /**
+         * the line that the logical line being parsed starts on
+         */
+        private int lineNumber = 1;
+        private int linesInLogicalLine;
+        private int physicalLineStart;
+        /**
+         * the chunk that the bytes of lazy values are copied to
+         */
+        private byte[] arenaChunk;
+        private int arenaChunkUsed;
+
+
+        private Parse(InputStream input, ByteBuffer file, boolean lazyValues, BiConsumer<String, Object> properties)
+        {
+            this.input = input;
+            this.fileToRead = (file != null) ? file.duplicate() : null;
+            this.lazyValues = lazyValues;
+            this.properties = properties;
+        }
+
+
+        private void run() throws ResourceException
+        {
+            int position = 0;
+            while(position < limit || !endOfInput)
+            {
+                int next = parseLogicalLine(position);
+                if(next < 0)
+                {
+                    position = readMore(position);
+                }
+                else
+                {
+                    lineNumber += linesInLogicalLine;
+                    position = next;
+                }
+            }
+        }
+
+
+        private int readMore(int position) throws ResourceException
+        {
+            int unparsed = limit - position;
+            System.arraycopy(buffer, position, buffer, 0, unparsed);
+            limit = unparsed;
+            if(limit == buffer.length)
+            {
+                //a logical line longer than the buffer
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            if(fileToRead != null)
+            {
+                int read = Math.min(buffer.length - limit, fileToRead.remaining());
+                fileToRead.get(buffer, limit, read);
+                limit += read;
+                endOfInput = !fileToRead.hasRemaining();
+                return 0;
+            }
+            try
+            {
+                int read = input.read(buffer, limit, buffer.length - limit);
+                if(read < 0)
+                {
+                    endOfInput = true;
+                }
+                else
+                {
+                    limit += read;
+                }
+            }
+            catch(IOException e)
+            {
+                throw new ResourceException(e, "Cannot read properties after line %d.", lineNumber);
+            }
+            return 0;
+        }
+
+
+        private int parseLogicalLine(int start) throws ResourceException
+        {
+            linesInLogicalLine = 0;
+            physicalLineStart = start;
+            //continuations before anything else still leave the logical line blank or a comment
+            int i = skipBlanks(start);
+            if(i < 0)
+            {
+                return -1;
+            }
+            else if(i == limit)
+            {
+                if(!endOfInput)
+                {
+                    return -1;
+                }
+                else if(i - start >= 2 && buffer[i - 2] == '\\' && isLineTerminator(buffer[i - 1]))
+                {
+                    //like Properties.load, a continuation whose line terminator ends the input ends the line, which is empty
+                    properties.accept("", "");
+                }
+                return limit;
+            }
+            else if(isLineTerminator(buffer[i]))
+            {
+                return skipLineTerminator(i);
+            }
+            else if(buffer[i] == '#' || buffer[i] == '!')
+            {
+                while(i < limit && !isLineTerminator(buffer[i]))
+                {
+                    i++;
+                }
+                if(i == limit)
+                {
+                    return endOfInput ? limit : -1;
+                }
+                return skipLineTerminator(i);
+            }
+            int keyStart = i;
+            boolean keyEscaped = false;
+            while(true)
+            {
+                if(i == limit)
+                {
+                    if(!endOfInput)
+                    {
+                        return -1;
+                    }
+                    break;
+                }
+                byte b = buffer[i];
+                if(b == '\\')
+                {
+                    keyEscaped = true;
+                    i = skipEscape(i);
+                    if(i < 0)
+                    {
+                        return -1;
+                    }
+                }
+                else if(b == '=' || b == ':' || isWhitespace(b) || isLineTerminator(b))
+                {
+                    break;
+                }
+                else
+                {
+                    i++;
+                }
+            }
+            int keyEnd = i;
+            i = skipBlanks(i);
+            if(i >= 0 && i < limit && (buffer[i] == '=' || buffer[i] == ':'))
+            {
+                i = skipBlanks(i + 1);
+            }
+            if(i < 0)
+            {
+                return -1;
+            }
+            int valueStart = i;
+            boolean valueEscaped = false;
+            boolean valueAscii = true;
+            while(true)
+            {
+                if(i == limit)
+                {
+                    if(!endOfInput)
+                    {
+                        return -1;
+                    }
+                    break;
+                }
+                byte b = buffer[i];
+                if(b == '\\')
+                {
+                    valueEscaped = true;
+                    i = skipEscape(i);
+                    if(i < 0)
+                    {
+                        return -1;
+                    }
+                }
+                else if(isLineTerminator(b))
+                {
+                    break;
+                }
+                else
+                {
+                    valueAscii &= b >= 0;
+                    i++;
+                }
+            }
+            int valueEnd = i;
+            int next = i == limit ? limit : skipLineTerminator(i);
+            if(next < 0)
+            {
+                return -1;
+            }
+            String key = toText(keyStart, keyEnd, keyEscaped);
+            Object value;
+            if(!valueEscaped && valueEnd - valueStart <= MaximumCachedValueLength && (singleByteCharset || valueAscii))
+            {
+                value = cachedText(valueStart, valueEnd);
+            }
+            else if(lazyValues)
+            {
+                value = toUndecodedText(valueStart, valueEnd, valueEscaped);
+            }
+            else
+            {
+                value = toText(valueStart, valueEnd, valueEscaped);
+            }
+            properties.accept(key, value);
+            return next;
+        }
+
+
+        /**
+         * skips whitespace and line continuations, at the start of a line and between a key and its value
+         */
+        private int skipBlanks(int i) throws ResourceException
+        {
+            while(true)
+            {
+                if(i == limit)
+                {
+                    return endOfInput ? limit : -1;
+                }
+                else if(isWhitespace(buffer[i]))
+                {
+                    i++;
+                }
+                else if(buffer[i] == '\\')
+                {
+                    if(i + 1 == limit)
+                    {
+                        return endOfInput ? i : -1;
+                    }
+                    else if(!isLineTerminator(buffer[i + 1]))
+                    {
+                        return i;
+                    }
+                    i = skipEscape(i);
+                    if(i < 0)
+                    {
+                        return -1;
+                    }
+                }
+                else
+                {
+                    return i;
+                }
+            }
+        }
+
+
+        private int skipEscape(int backslash) throws ResourceException
+        {
+            if(backslash + 1 == limit)
+            {
+                return endOfInput ? limit : -1;
+            }
+            byte escaped = buffer[backslash + 1];
+            if(escaped == 'u')
+            {
+                int line = lineNumber + linesInLogicalLine;
+                int column = columnOf(backslash);
+                int i = backslash + 2;
+                for(int digits = 0; digits < 4; digits++)
+                {
+                    //like Properties.load, the digits may be split by line continuations
+                    while(i + 1 < limit && buffer[i] == '\\' && isLineTerminator(buffer[i + 1]))
+                    {
+                        i = skipEscape(i);
+                        if(i < 0)
+                        {
+                            return -1;
+                        }
+                    }
+                    if(i + 1 >= limit && !endOfInput)
+                    {
+                        return -1;
+                    }
+                    else if(i == limit || hexDigitValue(buffer[i]) < 0)
+                    {
+                        throw new ResourceException("Malformed \\uxxxx escape at line %d, column %d.", line, column);
+                    }
+                    i++;
+                }
+                return i;
+            }
+            else if(isLineTerminator(escaped))
+            {
+                int next = skipLineTerminator(backslash + 1);
+                if(next < 0)
+                {
+                    return -1;
+                }
+                while(next < limit && isWhitespace(buffer[next]))
+                {
+                    next++;
+                }
+                return next == limit && !endOfInput ? -1 : next;
+            }
+            return backslash + 2;
+        }
+
+
+        private int skipLineTerminator(int terminator)
+        {
+            int next = terminator + 1;
+            if(buffer[terminator] == '\r')
+            {
+                if(next == limit && !endOfInput)
+                {
+                    //\n may follow in the bytes not read yet
+                    return -1;
+                }
+                else if(next < limit && buffer[next] == '\n')
+                {
+                    next++;
+                }
+            }
+            linesInLogicalLine++;
+            physicalLineStart = next;
+            return next;
+        }
+
+
+        private int columnOf(int index)
+        {
+            return new String(buffer, physicalLineStart, index - physicalLineStart, charset).length() + 1;
+        }
+
+
+        private String toText(int start, int end, boolean escaped)
+        {
+            String text = new String(buffer, start, end - start, charset);
+            return escaped ? unescape(text) : text;
+        }
+
+
+        private UndecodedText toUndecodedText(int start, int end, boolean escaped)
+        {
+            int length = end - start;
+            if(length > MaximumArenaValueLength)
+            {
+                return new UndecodedText(Arrays.copyOfRange(buffer, start, end), 0, length, charset, escaped);
+            }
+            if(arenaChunk == null || arenaChunk.length - arenaChunkUsed < length)
+            {
+                int chunkSize = (arenaChunk == null) ? FirstArenaChunkSize : Math.min(MaximumArenaChunkSize, arenaChunk.length * 2);
+                arenaChunk = new byte[Math.max(chunkSize, length)];
+                arenaChunkUsed = 0;
+            }
+            System.arraycopy(buffer, start, arenaChunk, arenaChunkUsed, length);
+            UndecodedText text = new UndecodedText(arenaChunk, arenaChunkUsed, length, charset, escaped);
+            arenaChunkUsed += length;
+            return text;
+        }
+
+
+        private String cachedText(int start, int end)
+        {
+            int hash = 0;
+            for(int i = start; i < end; i++)
+            {
+                hash = 31 * hash + buffer[i];
+            }
+            int slot = (hash ^ (hash >>> 16)) & (ValueCacheSize - 1);
+            String cached = valueCache[slot];
+            if(cached != null && matches(cached, start, end))
+            {
+                return cached;
+            }
+            String text = new String(buffer, start, end - start, charset);
+            valueCache[slot] = text;
+            return text;
+        }
+
+
+        private boolean matches(String text, int start, int end)
+        {
+            if(text.length() != end - start)
+            {
+                return false;
+            }
+            for(int i = start; i < end; i++)
+            {
+                if(text.charAt(i - start) != (char)(buffer[i] & 0xff))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
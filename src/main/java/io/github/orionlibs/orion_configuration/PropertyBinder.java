@@ -0,0 +1,181 @@
+package io.github.orionlibs.orion_configuration;
+
+import io.github.orionlibs.orion_configuration.tasks.ProcessStaticVariableNameTask;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * creates records and POJOs of one class from the properties under a prefix.
+ * Record components are passed to the canonical constructor and POJO fields are set after the
+ * no-argument constructor has run, both through MethodHandles that, like the relative key of every member and
+ * the PropertyValueParser for its type, are resolved once per class. Member names become keys through
+ * ProcessStaticVariableNameTask: maxPoolSize and MAX_POOL_SIZE both read the key prefix.max.pool.size.
+ */
+final class PropertyBinder
+{
+    private static final ClassValue<PropertyBinder> binders = new ClassValue<>()
+    {
+        @Override
+        protected PropertyBinder computeValue(Class<?> type)
+        {
+            return new PropertyBinder(type);
+        }
+    };
+    private final Class<?> type;
+    private final boolean isRecord;
+    /**
+     * (Object[])Object for records, ()Object for POJOs
+     */
+    private final MethodHandle constructor;
+    private final BoundMember[] members;
+
+
+    private PropertyBinder(Class<?> type)
+    {
+        this.type = type;
+        this.isRecord = type.isRecord();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<BoundMember> boundMembers = new ArrayList<>();
+        try
+        {
+            if(isRecord)
+            {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] componentTypes = new Class<?>[components.length];
+                for(int i = 0; i < components.length; i++)
+                {
+                    componentTypes[i] = components[i].getType();
+                    boundMembers.add(new BoundMember(components[i].getName(), components[i].getType(), components[i].getGenericType(), null, components[i].toString()));
+                }
+                Constructor<?> canonicalConstructor = type.getDeclaredConstructor(componentTypes);
+                canonicalConstructor.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(canonicalConstructor)
+                                .asType(MethodType.genericMethodType(components.length))
+                                .asSpreader(Object[].class, components.length);
+            }
+            else
+            {
+                Constructor<?> noArgumentsConstructor = type.getDeclaredConstructor();
+                noArgumentsConstructor.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(noArgumentsConstructor).asType(MethodType.methodType(Object.class));
+                for(Field field : type.getDeclaredFields())
+                {
+                    int modifiers = field.getModifiers();
+                    if(!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !field.isSynthetic())
+                    {
+                        field.setAccessible(true);
+                        MethodHandle setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+                        boundMembers.add(new BoundMember(field.getName(), field.getType(), field.getGenericType(), setter, field.toString()));
+                    }
+                }
+            }
+        }
+        catch(NoSuchMethodException | IllegalAccessException | InaccessibleObjectException | SecurityException e)
+        {
+            throw new IllegalArgumentException("Cannot bind properties to " + type.getName() + ": it must be a record or have a no-argument constructor", e);
+        }
+        this.members = boundMembers.toArray(new BoundMember[0]);
+    }
+
+
+    static PropertyBinder of(Class<?> type)
+    {
+        return binders.get(type);
+    }
+
+
+    /**
+     * @param registry a read view, so that binding does not make the next write copy the properties
+     */
+    Object bind(ConfigurationRegistry registry, String prefix) throws InvalidConfigurationPropertyException
+    {
+        //the keys are not cached, since callers may bind under any number of prefixes
+        String keyPrefix = (prefix.isEmpty() || prefix.endsWith(".")) ? prefix : prefix + ".";
+        try
+        {
+            if(isRecord)
+            {
+                Object[] arguments = new Object[members.length];
+                for(int i = 0; i < members.length; i++)
+                {
+                    Object value = members[i].read(registry, keyPrefix + members[i].relativeKey);
+                    arguments[i] = (value != null) ? value : members[i].defaultValue;
+                }
+                return (Object)constructor.invokeExact(arguments);
+            }
+            Object instance = (Object)constructor.invokeExact();
+            for(int i = 0; i < members.length; i++)
+            {
+                Object value = members[i].read(registry, keyPrefix + members[i].relativeKey);
+                if(value != null)
+                {
+                    members[i].setter.invokeExact(instance, value);
+                }
+            }
+            return instance;
+        }
+        catch(InvalidConfigurationPropertyException | Error e)
+        {
+            throw e;
+        }
+        catch(Throwable e)
+        {
+            throw new InvalidConfigurationPropertyException(e, "Cannot bind the properties under '%s' to %s.", prefix, type.getName());
+        }
+    }
+
+
+    /**
+     * a String-compatible member gets the property as it is; any other member gets it through its parser
+     */
+    private static final class BoundMember
+    {
+        private final String relativeKey;
+        private final boolean acceptsString;
+        private final PropertyValueParser<?> parser;
+        private final MethodHandle setter;
+        private final Object defaultValue;
+
+
+        private BoundMember(String name, Class<?> type, Type genericType, MethodHandle setter, String member)
+        {
+            this.relativeKey = ProcessStaticVariableNameTask.run(name);
+            this.acceptsString = type.isAssignableFrom(String.class);
+            this.parser = acceptsString ? null : PropertyValueParsers.forType(genericType);
+            this.setter = setter;
+            this.defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+            if(!acceptsString && parser == null)
+            {
+                throw new IllegalArgumentException("Cannot convert a property to the type of " + member);
+            }
+        }
+
+
+        /**
+         * @return the converted property, or null if it is missing
+         */
+        private Object read(ConfigurationRegistry registry, String key) throws InvalidConfigurationPropertyException
+        {
+            if(acceptsString)
+            {
+                return registry.getProp(key);
+            }
+            Object value = registry.getConvertedProp(key, parser);
+            if(value == null && registry.getObjectProp(key) != null)
+            {
+                throw new InvalidConfigurationPropertyException("The property '%s' cannot be converted to the type it is bound to.", key);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.Objects;
+
+/**
+ * a property bound once through ConfigurationRegistry and read many times.
+ * The registry pushes every change of the key into the handle,
+ * so reading a handle costs no more than reading a volatile field.
+ * The registry holds its handles weakly: a handle is unbound once nothing else references it,
+ * and binding the same key and default again then gives a new handle.
+ */
+public abstract class PropertyHandle
+{
+    private final String key;
+    private final Object defaultValue;
+
+
+    PropertyHandle(String key, Object defaultValue)
+    {
+        this.key = key;
+        this.defaultValue = defaultValue;
+    }
+
+
+    public String getKey()
+    {
+        return key;
+    }
+
+
+    /**
+     * called by the registry, under its write lock, with the current value of the key or null if it has none
+     */
+    abstract void refresh(PropertyValue propertyValue);
+
+
+    boolean isSameBindingAs(PropertyHandle other)
+    {
+        return getClass() == other.getClass() && Objects.equals(defaultValue, other.defaultValue);
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * the default PropertyStore of a ConfigurationRegistry.
+ * The sorted key index behind prefix queries is built on the first such query and from then on
+ * kept up to date by putValue and removeValue, so registries that never ask for a prefix never pay for it.
+ */
+final class PropertyMap extends ConcurrentHashMap<String, PropertyValue> implements PropertyStore
+{
+    private volatile boolean shared;
+    /**
+     * written under the lock on this map, so that a put or removal cannot slip past a concurrent build
+     */
+    private volatile NavigableSet<String> sortedKeys;
+
+
+    PropertyMap()
+    {
+        super();
+    }
+
+
+    PropertyMap(PropertyMap properties)
+    {
+        super(properties);
+        NavigableSet<String> keysToCopy = properties.sortedKeys;
+        this.sortedKeys = (keysToCopy != null) ? new ConcurrentSkipListSet<>(keysToCopy) : null;
+    }
+
+
+    @Override
+    public void batchWritten()
+    {
+    }
+
+
+    @Override
+    public boolean isShared()
+    {
+        return shared;
+    }
+
+
+    @Override
+    public void markShared()
+    {
+        shared = true;
+    }
+
+
+    @Override
+    public PropertyStore copy()
+    {
+        return new PropertyMap(this);
+    }
+
+
+    @Override
+    public PropertyValue putValue(String key, PropertyValue value)
+    {
+        PropertyValue previousValue = put(key, value);
+        if(previousValue == null)
+        {
+            synchronized(this)
+            {
+                if(sortedKeys != null)
+                {
+                    sortedKeys.add(key);
+                }
+            }
+        }
+        return previousValue;
+    }
+
+
+    @Override
+    public PropertyValue removeValue(String key)
+    {
+        PropertyValue previousValue = remove(key);
+        if(previousValue != null)
+        {
+            synchronized(this)
+            {
+                if(sortedKeys != null)
+                {
+                    sortedKeys.remove(key);
+                }
+            }
+        }
+        return previousValue;
+    }
+
+
+    /**
+     * visits the keys that start with the prefix, in order, in O(log n + number of keys visited)
+     */
+    @Override
+    public void forEachKeyWithPrefix(String prefix, Consumer<String> action)
+    {
+        for(String key : getSortedKeys().tailSet(prefix, true))
+        {
+            if(!key.startsWith(prefix))
+            {
+                break;
+            }
+            action.accept(key);
+        }
+    }
+
+
+    private NavigableSet<String> getSortedKeys()
+    {
+        NavigableSet<String> keys = sortedKeys;
+        if(keys == null)
+        {
+            synchronized(this)
+            {
+                keys = sortedKeys;
+                if(keys == null)
+                {
+                    keys = new ConcurrentSkipListSet<>(keySet());
+                    sortedKeys = keys;
+                }
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * an unmodifiable Map<String, String> over the properties of a ConfigurationRegistry.
+ * Nothing is copied: every call reads the registry's current map, and values are turned
+ * into strings as they are read, with null staying null.
+ */
+final class PropertyMapView extends AbstractMap<String, String>
+{
+    private final Supplier<Map<String, PropertyValue>> properties;
+
+
+    PropertyMapView(Supplier<Map<String, PropertyValue>> properties)
+    {
+        this.properties = properties;
+    }
+
+
+    static String toText(PropertyValue value)
+    {
+        Object text = (value != null) ? value.getValue() : null;
+        return (text != null) ? text.toString() : null;
+    }
+
+
+    @Override
+    public int size()
+    {
+        return properties.get().size();
+    }
+
+
+    @Override
+    public boolean isEmpty()
+    {
+        return properties.get().isEmpty();
+    }
+
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return key != null && properties.get().containsKey(key);
+    }
+
+
+    @Override
+    public String get(Object key)
+    {
+        return (key != null) ? toText(properties.get().get(key)) : null;
+    }
+
+
+    @Override
+    public String getOrDefault(Object key, String defaultValue)
+    {
+        PropertyValue value = (key != null) ? properties.get().get(key) : null;
+        return (value != null) ? toText(value) : defaultValue;
+    }
+
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action)
+    {
+        properties.get().forEach((key, value) -> action.accept(key, toText(value)));
+    }
+
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet()
+    {
+        return new AbstractSet<>()
+        {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator()
+            {
+                Iterator<Map.Entry<String, PropertyValue>> entries = properties.get().entrySet().iterator();
+                return new Iterator<>()
+                {
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return entries.hasNext();
+                    }
+
+
+                    @Override
+                    public Map.Entry<String, String> next()
+                    {
+                        Map.Entry<String, PropertyValue> entry = entries.next();
+                        return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), toText(entry.getValue()));
+                    }
+                };
+            }
+
+
+            @Override
+            public int size()
+            {
+                return PropertyMapView.this.size();
+            }
+        };
+    }
+}
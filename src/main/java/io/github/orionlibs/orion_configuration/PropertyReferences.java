@@ -0,0 +1,272 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * the ${key} references between the properties of a ConfigurationRegistry.
+ * A value with references is stored resolved, so reading it costs the same as reading a literal,
+ * and it is resolved again only when a key it depends on, directly or through other references, changes.
+ * A reference to a missing key stays in the value as it is written until the key gets a value.
+ * Callers must hold the registry's write lock.
+ */
+final class PropertyReferences
+{
+    /**
+     * the parsed values of the keys whose values have references
+     */
+    private final Map<String, Template> templatesByKey = new HashMap<>();
+    /**
+     * key -> the keys whose values refer to it
+     */
+    private final Map<String, Set<String>> dependentsByKey = new HashMap<>();
+
+
+    /**
+     * @param changes the values written, as given, or deletions
+     * @param currentValues the values of the keys that do not change
+     * @return the changes with their references resolved, plus the newly resolved values of the keys that depend on them
+     * @throws IllegalArgumentException if the changes would make references form a cycle. Nothing is changed then.
+     */
+    Map<String, Object> resolve(Map<String, Object> changes, Function<String, PropertyValue> currentValues)
+    {
+        Map<String, Template> previousTemplates = new HashMap<>();
+        Deque<String> keysToVisit = new ArrayDeque<>();
+        for(Map.Entry<String, Object> change : changes.entrySet())
+        {
+            String key = change.getKey();
+            Template template = ConfigurationBatch.isDeletion(change.getValue()) ? null : Template.parse(change.getValue());
+            if(template != null || templatesByKey.containsKey(key))
+            {
+                previousTemplates.put(key, setTemplate(key, template));
+            }
+            if(template != null || dependentsByKey.containsKey(key))
+            {
+                keysToVisit.add(key);
+            }
+        }
+        if(keysToVisit.isEmpty())
+        {
+            //no references are involved
+            return changes;
+        }
+        Set<String> keysToResolve = new LinkedHashSet<>();
+        Set<String> visitedKeys = new HashSet<>(keysToVisit);
+        while(!keysToVisit.isEmpty())
+        {
+            String key = keysToVisit.poll();
+            if(templatesByKey.containsKey(key))
+            {
+                keysToResolve.add(key);
+            }
+            for(String dependent : dependentsByKey.getOrDefault(key, Set.of()))
+            {
+                if(visitedKeys.add(dependent))
+                {
+                    keysToVisit.add(dependent);
+                }
+            }
+        }
+        //each key is resolved once every key it refers to among keysToResolve has been
+        Map<String, Integer> unresolvedReferences = new HashMap<>();
+        Deque<String> resolvableKeys = new ArrayDeque<>();
+        for(String key : keysToResolve)
+        {
+            int unresolved = 0;
+            for(String reference : templatesByKey.get(key).referencedKeys)
+            {
+                if(keysToResolve.contains(reference))
+                {
+                    unresolved++;
+                }
+            }
+            if(unresolved == 0)
+            {
+                resolvableKeys.add(key);
+            }
+            else
+            {
+                unresolvedReferences.put(key, unresolved);
+            }
+        }
+        Map<String, Object> newValues = new LinkedHashMap<>(changes);
+        Function<String, String> textOfKey = key ->
+        {
+            Object value;
+            if(newValues.containsKey(key))
+            {
+                value = newValues.get(key);
+            }
+            else
+            {
+                PropertyValue currentValue = currentValues.apply(key);
+                value = (currentValue != null) ? currentValue.getValue() : null;
+            }
+            return (value != null && !ConfigurationBatch.isDeletion(value)) ? value.toString() : null;
+        };
+        while(!resolvableKeys.isEmpty())
+        {
+            String key = resolvableKeys.poll();
+            newValues.put(key, templatesByKey.get(key).resolve(textOfKey));
+            for(String dependent : dependentsByKey.getOrDefault(key, Set.of()))
+            {
+                Integer unresolved = unresolvedReferences.get(dependent);
+                if(unresolved != null && unresolved == 1)
+                {
+                    unresolvedReferences.remove(dependent);
+                    resolvableKeys.add(dependent);
+                }
+                else if(unresolved != null)
+                {
+                    unresolvedReferences.put(dependent, unresolved - 1);
+                }
+            }
+        }
+        if(!unresolvedReferences.isEmpty())
+        {
+            previousTemplates.forEach(this::setTemplate);
+            throw new IllegalArgumentException(String.format("The references of %s form a cycle or depend on one.", new TreeSet<>(unresolvedReferences.keySet())));
+        }
+        return newValues;
+    }
+
+
+    /**
+     * @return the value of the key as it was written, or null if it has no references
+     */
+    String getWrittenValue(String key)
+    {
+        Template template = templatesByKey.get(key);
+        return (template != null) ? template.text : null;
+    }
+
+
+    /**
+     * @return the previous template of the key
+     */
+    private Template setTemplate(String key, Template template)
+    {
+        Template previousTemplate = (template != null) ? templatesByKey.put(key, template) : templatesByKey.remove(key);
+        if(previousTemplate != null)
+        {
+            for(String reference : previousTemplate.referencedKeys)
+            {
+                Set<String> dependents = dependentsByKey.get(reference);
+                dependents.remove(key);
+                if(dependents.isEmpty())
+                {
+                    dependentsByKey.remove(reference);
+                }
+            }
+        }
+        if(template != null)
+        {
+            for(String reference : template.referencedKeys)
+            {
+                dependentsByKey.computeIfAbsent(reference, dependent -> new HashSet<>()).add(key);
+            }
+        }
+        return previousTemplate;
+    }
+
+
+    /**
+     * a value split around its references: literals[i] comes before references[i],
+     * and the last literal after the last reference
+     */
+    private static final class Template
+    {
+        private final String text;
+        private final String[] literals;
+        private final String[] references;
+        private final Set<String> referencedKeys;
+
+
+        private Template(String text, List<String> literals, List<String> references)
+        {
+            this.text = text;
+            this.literals = literals.toArray(new String[0]);
+            this.references = references.toArray(new String[0]);
+            this.referencedKeys = new LinkedHashSet<>(references);
+        }
+
+
+        /**
+         * @return null if the value is not a string with at least one ${key} in it. Keys cannot contain } or ${.
+         */
+        private static Template parse(Object value)
+        {
+            if(!(value instanceof String))
+            {
+                return null;
+            }
+            String text = (String)value;
+            int start = text.indexOf("${");
+            if(start < 0)
+            {
+                return null;
+            }
+            List<String> literals = new ArrayList<>();
+            List<String> references = new ArrayList<>();
+            int literalStart = 0;
+            while(start >= 0)
+            {
+                int end = text.indexOf('}', start + 2);
+                if(end < 0)
+                {
+                    break;
+                }
+                int nestedStart = text.indexOf("${", start + 2);
+                if(nestedStart >= 0 && nestedStart < end)
+                {
+                    //the outer ${ is literal text
+                    start = nestedStart;
+                    continue;
+                }
+                if(end > start + 2)
+                {
+                    literals.add(text.substring(literalStart, start));
+                    references.add(text.substring(start + 2, end));
+                    literalStart = end + 1;
+                }
+                start = text.indexOf("${", end + 1);
+            }
+            if(references.isEmpty())
+            {
+                return null;
+            }
+            literals.add(text.substring(literalStart));
+            return new Template(text, literals, references);
+        }
+
+
+        private String resolve(Function<String, String> textOfKey)
+        {
+            StringBuilder resolved = new StringBuilder();
+            for(int i = 0; i < references.length; i++)
+            {
+                resolved.append(literals[i]);
+                String text = textOfKey.apply(references[i]);
+                if(text != null)
+                {
+                    resolved.append(text);
+                }
+                else
+                {
+                    resolved.append("${").append(references[i]).append('}');
+                }
+            }
+            return resolved.append(literals[references.length]).toString();
+        }
+    }
+}
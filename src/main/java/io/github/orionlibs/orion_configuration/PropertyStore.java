@@ -0,0 +1,47 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * the properties of a ConfigurationRegistry: a PropertyMap, or a CompactPropertyMap when compact storage is enabled.
+ * Reads never lock, and only the registry's writes, under its write lock, call putValue and removeValue.
+ * Once a snapshot shares a store it is never changed again: the registry copies it on its next write and changes the copy.
+ */
+interface PropertyStore extends Map<String, PropertyValue>
+{
+    /**
+     * @return the previous value of the key
+     */
+    PropertyValue putValue(String key, PropertyValue value);
+
+
+    /**
+     * @return the previous value of the key
+     */
+    PropertyValue removeValue(String key);
+
+
+    /**
+     * visits the keys that start with the prefix, in order
+     */
+    void forEachKeyWithPrefix(String prefix, Consumer<String> action);
+
+
+    /**
+     * called on a copy once a batch has been written to it, before it is published
+     */
+    void batchWritten();
+
+
+    boolean isShared();
+
+
+    void markShared();
+
+
+    /**
+     * @return a store with the same properties that writes to either one do not change in the other
+     */
+    PropertyStore copy();
+}
@@ -0,0 +1,101 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.util.Objects;
+
+/**
+ * a value stored in ConfigurationRegistry together with the typed values parsed from it.
+ * A write replaces the whole PropertyValue, so the parsed values never outlive the value they came from.
+ * The value may start as an UndecodedText that is decoded on first read.
+ */
+final class PropertyValue
+{
+    /**
+     * an UndecodedText until first read; racing readers decode the same String
+     */
+    private Object value;
+    private volatile ParsedValue parsedValues;
+
+
+    PropertyValue(Object value)
+    {
+        this.value = value;
+    }
+
+
+    Object getValue()
+    {
+        Object current = value;
+        if(current instanceof UndecodedText)
+        {
+            current = ((UndecodedText)current).decode();
+            value = current;
+        }
+        return current;
+    }
+
+
+    /**
+     * compares without decoding: an UndecodedText only equals itself
+     */
+    boolean holds(Object otherValue)
+    {
+        Object current = value;
+        if(current instanceof UndecodedText || otherValue instanceof UndecodedText)
+        {
+            return current == otherValue;
+        }
+        return Objects.equals(current, otherValue);
+    }
+
+
+    boolean holdsSameValue(PropertyValue other)
+    {
+        return holds(other.value);
+    }
+
+
+    String getString()
+    {
+        Object current = getValue();
+        return (current instanceof String) ? (String)current : null;
+    }
+
+
+    /**
+     * @return the value converted by the given parser, or null if it is not a string
+     * or the parser rejects it. Both outcomes are remembered, so each parser runs once per value.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T getParsedValue(PropertyValueParser<T> parser)
+    {
+        ParsedValue head = parsedValues;
+        for(ParsedValue parsed = head; parsed != null; parsed = parsed.next)
+        {
+            if(parsed.parser == parser)
+            {
+                return (T)parsed.value;
+            }
+        }
+        String string = getString();
+        T result = (string != null) ? parser.parse(string) : null;
+        //a concurrent reader may drop this entry; the value is then parsed once more
+        parsedValues = new ParsedValue(parser, result, head);
+        return result;
+    }
+
+
+    private static final class ParsedValue
+    {
+        private final PropertyValueParser<?> parser;
+        private final Object value;
+        private final ParsedValue next;
+
+
+        private ParsedValue(PropertyValueParser<?> parser, Object value, ParsedValue next)
+        {
+            this.parser = parser;
+            this.value = value;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.orionlibs.orion_configuration;
+
+/**
+ * converts the string form of a property to a typed value.
+ * Implementations return null when the string cannot be converted.
+ * ConfigurationRegistry caches results per parser instance, so parsers should be created once and reused.
+ */
+@FunctionalInterface
+public interface PropertyValueParser<T>
+{
+    T parse(String value);
+}
@@ -0,0 +1,467 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * the parsers behind the typed getters of ConfigurationRegistry and behind @Prop injection.
+ * Each parser instance is also the key its results are cached under in PropertyValue,
+ * which is why forType and forListOf hand out one instance per type.
+ * Values are validated before they are converted, so a malformed value costs
+ * a scan of its characters rather than a thrown NumberFormatException.
+ */
+public final class PropertyValueParsers
+{
+    static final PropertyValueParser<Byte> ByteValue = value ->
+    {
+        Long number = toLong(value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        return (number != null) ? Byte.valueOf(number.byteValue()) : null;
+    };
+    static final PropertyValueParser<Short> ShortValue = value ->
+    {
+        Long number = toLong(value, Short.MIN_VALUE, Short.MAX_VALUE);
+        return (number != null) ? Short.valueOf(number.shortValue()) : null;
+    };
+    static final PropertyValueParser<Integer> IntegerValue = value ->
+    {
+        Long number = toLong(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return (number != null) ? Integer.valueOf(number.intValue()) : null;
+    };
+    static final PropertyValueParser<Long> LongValue = value -> toLong(value, Long.MIN_VALUE, Long.MAX_VALUE);
+    static final PropertyValueParser<Float> FloatValue = value -> toFloatingPoint(value, Float::valueOf);
+    static final PropertyValueParser<Double> DoubleValue = value -> toFloatingPoint(value, Double::valueOf);
+    static final PropertyValueParser<BigDecimal> BigDecimalValue = value ->
+    {
+        if(isDecimal(value, false))
+        {
+            try
+            {
+                return new BigDecimal(value);
+            }
+            catch(NumberFormatException e)
+            {
+                //only an exponent beyond the int range gets here
+                return null;
+            }
+        }
+        return null;
+    };
+    static final PropertyValueParser<BigInteger> BigIntegerValue = value ->
+    {
+        int start = (value.startsWith("-") || value.startsWith("+")) ? 1 : 0;
+        if(value.length() == start)
+        {
+            return null;
+        }
+        for(int i = start; i < value.length(); i++)
+        {
+            if(Character.digit(value.charAt(i), 10) < 0)
+            {
+                return null;
+            }
+        }
+        return new BigInteger(value);
+    };
+    static final PropertyValueParser<Boolean> BooleanValue = Boolean::valueOf;
+    static final PropertyValueParser<Character> CharacterValue = value -> (value.length() == 1) ? Character.valueOf(value.charAt(0)) : null;
+    static final PropertyValueParser<MessageTemplate> MessageTemplateValue = MessageTemplate::compile;
+    static final PropertyValueParser<Duration> DurationValue = PropertyValueParsers::toDuration;
+    private static final ClassValue<PropertyValueParser<?>> parsersByType = new ClassValue<>()
+    {
+        @Override
+        protected PropertyValueParser<?> computeValue(Class<?> type)
+        {
+            return createParser(type);
+        }
+    };
+    private static final ClassValue<PropertyValueParser<?>> listParsersByElementType = new ClassValue<>()
+    {
+        @Override
+        protected PropertyValueParser<?> computeValue(Class<?> elementType)
+        {
+            PropertyValueParser<?> elementParser = forType(elementType);
+            return (elementParser != null) ? createListParser(elementParser) : null;
+        }
+    };
+
+
+    private PropertyValueParsers()
+    {
+    }
+
+
+    /**
+     * @return the parser for primitives, their wrappers, String, BigDecimal, BigInteger, Duration and enums,
+     * or null if the type is not supported
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PropertyValueParser<T> forType(Class<T> type)
+    {
+        return (PropertyValueParser<T>)parsersByType.get(type);
+    }
+
+
+    /**
+     * @return the parser for comma-separated lists whose elements forType supports, or null otherwise.
+     * Elements are trimmed and the parsed lists are unmodifiable.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PropertyValueParser<List<T>> forListOf(Class<T> elementType)
+    {
+        return (PropertyValueParser<List<T>>)(PropertyValueParser<?>)listParsersByElementType.get(elementType);
+    }
+
+
+    /**
+     * resolves the parser for the generic type of a field or parameter: List, Collection or Iterable
+     * of a supported element type (String when raw) go to forListOf and everything else to forType
+     */
+    public static PropertyValueParser<?> forType(Type type)
+    {
+        if(type instanceof Class<?>)
+        {
+            Class<?> rawType = (Class<?>)type;
+            return isListType(rawType) ? forListOf(String.class) : forType(rawType);
+        }
+        else if(type instanceof ParameterizedType)
+        {
+            ParameterizedType parameterizedType = (ParameterizedType)type;
+            Type[] typeArguments = parameterizedType.getActualTypeArguments();
+            if(parameterizedType.getRawType() instanceof Class<?>
+                            && isListType((Class<?>)parameterizedType.getRawType())
+                            && typeArguments.length == 1
+                            && typeArguments[0] instanceof Class<?>)
+            {
+                return forListOf((Class<?>)typeArguments[0]);
+            }
+        }
+        return null;
+    }
+
+
+    private static boolean isListType(Class<?> type)
+    {
+        return type == List.class || type == Collection.class || type == Iterable.class;
+    }
+
+
+    private static PropertyValueParser<?> createParser(Class<?> type)
+    {
+        if(type == String.class)
+        {
+            return value -> value;
+        }
+        else if(type == int.class || type == Integer.class)
+        {
+            return IntegerValue;
+        }
+        else if(type == long.class || type == Long.class)
+        {
+            return LongValue;
+        }
+        else if(type == double.class || type == Double.class)
+        {
+            return DoubleValue;
+        }
+        else if(type == boolean.class || type == Boolean.class)
+        {
+            return BooleanValue;
+        }
+        else if(type == float.class || type == Float.class)
+        {
+            return FloatValue;
+        }
+        else if(type == short.class || type == Short.class)
+        {
+            return ShortValue;
+        }
+        else if(type == byte.class || type == Byte.class)
+        {
+            return ByteValue;
+        }
+        else if(type == char.class || type == Character.class)
+        {
+            return CharacterValue;
+        }
+        else if(type == BigDecimal.class)
+        {
+            return BigDecimalValue;
+        }
+        else if(type == BigInteger.class)
+        {
+            return BigIntegerValue;
+        }
+        else if(type == Duration.class)
+        {
+            return DurationValue;
+        }
+        else if(type.isEnum())
+        {
+            return createEnumParser(type);
+        }
+        return null;
+    }
+
+
+    /**
+     * matches constant names exactly first and then ignoring case
+     */
+    private static PropertyValueParser<?> createEnumParser(Class<?> enumType)
+    {
+        Map<String, Object> constantsByName = new HashMap<>();
+        Map<String, Object> constantsByUpperCaseName = new HashMap<>();
+        for(Object constant : enumType.getEnumConstants())
+        {
+            String name = ((Enum<?>)constant).name();
+            constantsByName.put(name, constant);
+            constantsByUpperCaseName.putIfAbsent(name.toUpperCase(Locale.ROOT), constant);
+        }
+        return value ->
+        {
+            String trimmedValue = value.trim();
+            Object constant = constantsByName.get(trimmedValue);
+            return (constant != null) ? constant : constantsByUpperCaseName.get(trimmedValue.toUpperCase(Locale.ROOT));
+        };
+    }
+
+
+    private static PropertyValueParser<List<Object>> createListParser(PropertyValueParser<?> elementParser)
+    {
+        return value ->
+        {
+            if(value.isBlank())
+            {
+                return List.of();
+            }
+            List<Object> elements = new ArrayList<>();
+            int start = 0;
+            while(start <= value.length())
+            {
+                int end = value.indexOf(',', start);
+                end = (end < 0) ? value.length() : end;
+                Object element = elementParser.parse(value.substring(start, end).trim());
+                if(element == null)
+                {
+                    return null;
+                }
+                elements.add(element);
+                start = end + 1;
+            }
+            return List.copyOf(elements);
+        };
+    }
+
+
+    /**
+     * accepts ISO-8601 durations (PT30S) and a number followed by ns, us, ms, s, m, h or d,
+     * where a plain number means milliseconds
+     */
+    private static Duration toDuration(String value)
+    {
+        String trimmedValue = value.trim();
+        int signLength = (trimmedValue.startsWith("-") || trimmedValue.startsWith("+")) ? 1 : 0;
+        if(trimmedValue.regionMatches(true, signLength, "P", 0, 1))
+        {
+            try
+            {
+                return Duration.parse(trimmedValue);
+            }
+            catch(DateTimeParseException e)
+            {
+                return null;
+            }
+        }
+        int unitStart = signLength;
+        while(unitStart < trimmedValue.length() && trimmedValue.charAt(unitStart) >= '0' && trimmedValue.charAt(unitStart) <= '9')
+        {
+            unitStart++;
+        }
+        Long amount = toLong(trimmedValue.substring(0, unitStart), Long.MIN_VALUE, Long.MAX_VALUE);
+        if(amount == null)
+        {
+            return null;
+        }
+        try
+        {
+            switch(trimmedValue.substring(unitStart).trim().toLowerCase(Locale.ROOT))
+            {
+                case "ns":
+                    return Duration.ofNanos(amount);
+                case "us":
+                    return Duration.ofNanos(Math.multiplyExact(amount, 1000L));
+                case "":
+                case "ms":
+                    return Duration.ofMillis(amount);
+                case "s":
+                    return Duration.ofSeconds(amount);
+                case "m":
+                    return Duration.ofMinutes(amount);
+                case "h":
+                    return Duration.ofHours(amount);
+                case "d":
+                    return Duration.ofDays(amount);
+                default:
+                    return null;
+            }
+        }
+        catch(ArithmeticException e)
+        {
+            return null;
+        }
+    }
+
+
+    /**
+     * parses a base-10 integer the way Long.parseLong does, but returns null
+     * instead of throwing when the value is malformed or outside [min, max]
+     */
+    private static Long toLong(String value, long min, long max)
+    {
+        int length = value.length();
+        if(length == 0)
+        {
+            return null;
+        }
+        int i = 0;
+        boolean negative = false;
+        char firstCharacter = value.charAt(0);
+        if(firstCharacter == '-' || firstCharacter == '+')
+        {
+            negative = firstCharacter == '-';
+            if(++i == length)
+            {
+                return null;
+            }
+        }
+        //accumulate negatively, like Long.parseLong, so that min itself does not overflow
+        long limit = negative ? min : -max;
+        long multiplicationLimit = limit / 10;
+        long result = 0;
+        for(; i < length; i++)
+        {
+            int digit = Character.digit(value.charAt(i), 10);
+            if(digit < 0 || result < multiplicationLimit)
+            {
+                return null;
+            }
+            result *= 10;
+            if(result < limit + digit)
+            {
+                return null;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+
+    private static <T> T toFloatingPoint(String value, Function<String, T> parser)
+    {
+        String trimmedValue = value.trim();
+        if(isDecimal(trimmedValue, true))
+        {
+            return parser.apply(trimmedValue);
+        }
+        else if(isHexadecimal(trimmedValue))
+        {
+            //hexadecimal literals are rare enough to leave their validation to the JDK
+            try
+            {
+                return parser.apply(trimmedValue);
+            }
+            catch(NumberFormatException e)
+            {
+                return null;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * @param floatingPointLiteral true to also accept what Double.valueOf accepts on top of
+     * BigDecimal's grammar: NaN, Infinity and a trailing f, F, d or D
+     */
+    private static boolean isDecimal(String value, boolean floatingPointLiteral)
+    {
+        int length = value.length();
+        int i = 0;
+        if(i < length && (value.charAt(i) == '-' || value.charAt(i) == '+'))
+        {
+            i++;
+        }
+        if(floatingPointLiteral && (value.startsWith("NaN", i) || value.startsWith("Infinity", i)))
+        {
+            return value.length() - i == (value.charAt(i) == 'N' ? 3 : 8);
+        }
+        int digits = 0;
+        while(i < length && isDigit(value.charAt(i), floatingPointLiteral))
+        {
+            i++;
+            digits++;
+        }
+        if(i < length && value.charAt(i) == '.')
+        {
+            i++;
+            while(i < length && isDigit(value.charAt(i), floatingPointLiteral))
+            {
+                i++;
+                digits++;
+            }
+        }
+        if(digits == 0)
+        {
+            return false;
+        }
+        if(i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E'))
+        {
+            i++;
+            if(i < length && (value.charAt(i) == '-' || value.charAt(i) == '+'))
+            {
+                i++;
+            }
+            int exponentDigits = 0;
+            while(i < length && isDigit(value.charAt(i), floatingPointLiteral))
+            {
+                i++;
+                exponentDigits++;
+            }
+            if(exponentDigits == 0)
+            {
+                return false;
+            }
+        }
+        if(floatingPointLiteral && i < length && "fFdD".indexOf(value.charAt(i)) >= 0)
+        {
+            i++;
+        }
+        return i == length;
+    }
+
+
+    /**
+     * Double.valueOf only takes ASCII digits whereas BigDecimal takes any Unicode digit
+     */
+    private static boolean isDigit(char character, boolean asciiOnly)
+    {
+        return asciiOnly ? (character >= '0' && character <= '9') : Character.isDigit(character);
+    }
+
+
+    private static boolean isHexadecimal(String value)
+    {
+        int i = (value.startsWith("-") || value.startsWith("+")) ? 1 : 0;
+        return value.startsWith("0x", i) || value.startsWith("0X", i);
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.orionlibs.orion_configuration;
+
+/**
+ * a string property that falls back to its default value when the key is missing or does not hold a string
+ */
+public final class StringPropertyHandle extends PropertyHandle
+{
+    private final String defaultValue;
+    private volatile String value;
+
+
+    StringPropertyHandle(String key, String defaultValue)
+    {
+        super(key, defaultValue);
+        this.defaultValue = defaultValue;
+        this.value = defaultValue;
+    }
+
+
+    public String get()
+    {
+        return value;
+    }
+
+
+    public String getDefaultValue()
+    {
+        return defaultValue;
+    }
+
+
+    @Override
+    void refresh(PropertyValue propertyValue)
+    {
+        String stringValue = (propertyValue != null) ? propertyValue.getString() : null;
+        value = (stringValue != null) ? stringValue : defaultValue;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.orionlibs.orion_configuration;
+
+import java.nio.charset.Charset;
+
+/**
+ * a value of a .properties file that has not been decoded yet.
+ * Its bytes were copied out of the file into a chunk of a value arena, which it keeps alive until the value is decoded.
+ * The escapes were checked when the file was parsed, so decoding cannot fail.
+ */
+final class UndecodedText
+{
+    private final byte[] chunk;
+    private final int offset;
+    private final int length;
+    private final Charset charset;
+    private final boolean escaped;
+
+
+    UndecodedText(byte[] chunk, int offset, int length, Charset charset, boolean escaped)
+    {
+        this.chunk = chunk;
+        this.offset = offset;
+        this.length = length;
+        this.charset = charset;
+        this.escaped = escaped;
+    }
+
+
+    String decode()
+    {
+        String text = new String(chunk, offset, length, charset);
+        return escaped ? PropertiesParser.unescape(text) : text;
+    }
+}
@@ -5,6 +5,12 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * injects the property with the given key into a field or a single-parameter method.
+ * String members receive the raw value, or null if the property is missing.
+ * Primitives, their wrappers, BigDecimal, BigInteger, Duration, enums and comma-separated lists of these
+ * are converted with PropertyValueParsers, and are left untouched if the property is missing or cannot be converted.
+ */
 @Target(
                 {java.lang.annotation.ElementType.FIELD, java.lang.annotation.ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
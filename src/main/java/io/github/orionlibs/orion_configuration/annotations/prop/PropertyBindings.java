@@ -0,0 +1,194 @@
+package io.github.orionlibs.orion_configuration.annotations.prop;
+
+import io.github.orionlibs.orion_configuration.ConfigurationChangeListener;
+import io.github.orionlibs.orion_configuration.InMemoryConfigurationService;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the objects bound for live re-injection, indexed by property key.
+ * Objects are held through weak references, and a change to a property
+ * re-injects only the members of the objects bound to that key.
+ * All keys share one change listener, which runs on a writing thread, but not always on the one that made the change:
+ * while one writer delivers changes, the changes of other writers are queued for it, so their writes can return
+ * before their objects are re-injected. Injections for one key are serialised, so the last one always reads the latest value.
+ */
+final class PropertyBindings
+{
+    private final Map<String, Set<Binding>> bindingsByKey = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collectedObjects = new ReferenceQueue<>();
+    private final ConfigurationChangeListener changeListener = event -> event.getChangedKeys().forEach(this::reinject);
+
+
+    void bind(Object object, PropertyInjectionPlan injectionPlan, boolean includeMethods)
+    {
+        expungeCollectedObjects();
+        try
+        {
+            for(String key : injectionPlan.getKeys())
+            {
+                boolean bound = false;
+                while(!bound)
+                {
+                    Set<Binding> keyBindings = bindingsByKey.computeIfAbsent(key, this::createKeyBindings);
+                    synchronized(keyBindings)
+                    {
+                        //the set is dropped once its last binding is removed, so bind to the one that replaces it
+                        if(bindingsByKey.get(key) == keyBindings)
+                        {
+                            Binding binding = new Binding(object, key, injectionPlan, includeMethods, collectedObjects);
+                            keyBindings.remove(binding);
+                            keyBindings.add(binding);
+                            injectionPlan.injectToFields(object, key);
+                            bound = true;
+                        }
+                    }
+                }
+            }
+            if(includeMethods)
+            {
+                for(String key : injectionPlan.getKeys())
+                {
+                    Set<Binding> keyBindings = bindingsByKey.get(key);
+                    if(keyBindings != null)
+                    {
+                        synchronized(keyBindings)
+                        {
+                            injectionPlan.injectToMethods(object, key);
+                        }
+                    }
+                }
+            }
+        }
+        catch(RuntimeException | Error e)
+        {
+            unbind(object, injectionPlan);
+            throw e;
+        }
+    }
+
+
+    private Set<Binding> createKeyBindings(String key)
+    {
+        InMemoryConfigurationService.addChangeListener(key, changeListener, Runnable::run);
+        return ConcurrentHashMap.newKeySet();
+    }
+
+
+    void unbind(Object object, PropertyInjectionPlan injectionPlan)
+    {
+        for(String key : injectionPlan.getKeys())
+        {
+            removeBinding(key, new Binding(object, key, injectionPlan, false, null));
+        }
+    }
+
+
+    /**
+     * drops the key's bindings and its change listener once the key has no bindings left
+     */
+    private void removeBinding(String key, Binding binding)
+    {
+        Set<Binding> keyBindings = bindingsByKey.get(key);
+        if(keyBindings != null)
+        {
+            synchronized(keyBindings)
+            {
+                if(keyBindings.remove(binding) && keyBindings.isEmpty())
+                {
+                    //the listener goes first, so that bindings created for the key after these subscribe it again
+                    InMemoryConfigurationService.removeChangeListener(key, changeListener);
+                    bindingsByKey.remove(key, keyBindings);
+                }
+            }
+        }
+    }
+
+
+    private void reinject(String key)
+    {
+        expungeCollectedObjects();
+        Set<Binding> keyBindings = bindingsByKey.get(key);
+        if(keyBindings != null)
+        {
+            synchronized(keyBindings)
+            {
+                keyBindings.forEach(Binding::reinject);
+            }
+        }
+    }
+
+
+    private void expungeCollectedObjects()
+    {
+        for(Reference<?> reference = collectedObjects.poll(); reference != null; reference = collectedObjects.poll())
+        {
+            Binding binding = (Binding)reference;
+            removeBinding(binding.key, binding);
+        }
+    }
+
+
+    /**
+     * equal to another binding of the same object to the same key, so that an object is bound at most once per key.
+     * Once the object has been collected, a binding is only equal to itself.
+     */
+    private static final class Binding extends WeakReference<Object>
+    {
+        private final String key;
+        private final PropertyInjectionPlan injectionPlan;
+        private final boolean includeMethods;
+        private final int hashCode;
+
+
+        private Binding(Object object, String key, PropertyInjectionPlan injectionPlan, boolean includeMethods, ReferenceQueue<Object> collectedObjects)
+        {
+            super(object, collectedObjects);
+            this.key = key;
+            this.injectionPlan = injectionPlan;
+            this.includeMethods = includeMethods;
+            this.hashCode = System.identityHashCode(object) * 31 + key.hashCode();
+        }
+
+
+        private void reinject()
+        {
+            Object object = get();
+            if(object != null)
+            {
+                injectionPlan.injectToFields(object, key);
+                if(includeMethods)
+                {
+                    injectionPlan.injectToMethods(object, key);
+                }
+            }
+        }
+
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if(this == other)
+            {
+                return true;
+            }
+            if(!(other instanceof Binding))
+            {
+                return false;
+            }
+            Object object = get();
+            return object != null && object == ((Binding)other).get() && key.equals(((Binding)other).key);
+        }
+
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -1,111 +1,62 @@
 package io.github.orionlibs.orion_configuration.annotations.prop;
 
-import io.github.orionlibs.orion_assert.InaccessibleException;
-import io.github.orionlibs.orion_configuration.InMemoryConfigurationService;
-import io.github.orionlibs.orion_reflection.method.retrieval.ReflectionMethodsRetrievalService;
-import io.github.orionlibs.orion_reflection.variable.access.ReflectionInstanceVariablesAccessService;
-import io.github.orionlibs.orion_reflection.variable.retrieval.ReflectionInstanceVariablesRetrievalService;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.List;
 
+/**
+ * injects configuration properties into the @Prop-annotated fields and methods of an object.
+ * The annotated members of each class are found once and kept in a PropertyInjectionPlan.
+ * Objects injected through bindToFields or bindToFieldsAndMethods are also kept up to date:
+ * a change to a property re-injects the members bound to it soon after, on a thread that writes properties.
+ */
 public class PropertyDependencyInjectorService
 {
-    public void injectToFields(Object object) throws InvocationTargetException
-    {
-        List<Field> fields = ReflectionInstanceVariablesRetrievalService.getDeclaredInstanceVariables(object);
-        fields.forEach(field -> processInstanceVariableForPropertyInjection(object, field));
-    }
-
-
-    public void injectToFieldsAndMethods(Object object) throws InvocationTargetException
+    private static final ClassValue<PropertyInjectionPlan> injectionPlans = new ClassValue<>()
     {
-        injectToFields(object);
-        List<Method> methods = ReflectionMethodsRetrievalService.getDeclaredMethods(object);
-        methods.forEach(method ->
+        @Override
+        protected PropertyInjectionPlan computeValue(Class<?> type)
         {
-            try
-            {
-                processMethodForPropertyInjection(object, method);
-            }
-            catch(InvocationTargetException e)
-            {
-                e.printStackTrace();
-            }
-        });
-    }
+            return PropertyInjectionPlan.of(type);
+        }
+    };
+    private static final PropertyBindings bindings = new PropertyBindings();
 
 
-    private void processInstanceVariableForPropertyInjection(Object object, Field instanceVariable)
+    public void injectToFields(Object object) throws InvocationTargetException
     {
-        Prop injection = instanceVariable.getAnnotation(Prop.class);
-        if(injection != null)
-        {
-            try
-            {
-                processPropertyInjectionForInstanceVariable(object, injection, instanceVariable);
-            }
-            catch(InaccessibleException e)
-            {
-                //
-            }
-        }
+        injectionPlans.get(object.getClass()).injectToFields(object);
     }
 
 
-    private void processPropertyInjectionForInstanceVariable(Object object, Prop propertyInjection, Field instanceVariable) throws InaccessibleException
+    public void injectToFieldsAndMethods(Object object) throws InvocationTargetException
     {
-        String propertyToInjectString = propertyInjection.key();
-        String propertyToInject = InMemoryConfigurationService.getProp(propertyToInjectString);
-        instanceVariable.setAccessible(true);
-        ReflectionInstanceVariablesAccessService.injectObjectToInstanceVariable(object, propertyToInject, instanceVariable);
+        PropertyInjectionPlan injectionPlan = injectionPlans.get(object.getClass());
+        injectionPlan.injectToFields(object);
+        injectionPlan.injectToMethods(object);
     }
 
 
-    private void processMethodForPropertyInjection(Object object, Method method) throws InvocationTargetException
+    /**
+     * injects the fields of the object, and re-injects them whenever one of their properties changes,
+     * until unbind is called or the object is garbage collected
+     */
+    public void bindToFields(Object object)
     {
-        Prop injection = method.getAnnotation(Prop.class);
-        if(injection != null)
-        {
-            try
-            {
-                processPropertyInjectionForMethod(object, injection, method);
-            }
-            catch(InvocationTargetException e)
-            {
-                //
-            }
-            catch(InaccessibleException e)
-            {
-                //
-            }
-        }
+        bindings.bind(object, injectionPlans.get(object.getClass()), false);
     }
 
 
-    private void processPropertyInjectionForMethod(Object object, Prop propertyInjection, Method method) throws InvocationTargetException, InaccessibleException
+    /**
+     * injects the fields and methods of the object, and re-injects them whenever one of their properties changes,
+     * until unbind is called or the object is garbage collected
+     */
+    public void bindToFieldsAndMethods(Object object)
     {
-        String propertyToInjectString = propertyInjection.key();
-        String propertyToInject = InMemoryConfigurationService.getProp(propertyToInjectString);
-        method.setAccessible(true);
-        injectObjectToMethod(method, object, propertyToInject);
+        bindings.bind(object, injectionPlans.get(object.getClass()), true);
     }
 
 
-    private Object injectObjectToMethod(Method method, Object objectMethodBelongsTo, String propertyToInject) throws InvocationTargetException, InaccessibleException
+    public void unbind(Object object)
     {
-        try
-        {
-            return method.invoke(objectMethodBelongsTo, propertyToInject);
-        }
-        catch(IllegalAccessException e)
-        {
-            throw new InaccessibleException("The instance method is inaccessible.");
-        }
-        catch(IllegalArgumentException e)
-        {
-            throw e;
-        }
+        bindings.unbind(object, injectionPlans.get(object.getClass()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,306 @@
+package io.github.orionlibs.orion_configuration.annotations.prop;
+
+import io.github.orionlibs.orion_configuration.InMemoryConfigurationService;
+import io.github.orionlibs.orion_configuration.PropertyValueParser;
+import io.github.orionlibs.orion_configuration.PropertyValueParsers;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * how the @Prop-annotated fields and methods of one class get injected: through the
+ * PropertyInjector generated for the class at compile time when there is one, otherwise through
+ * MethodHandle setters built from a single reflective scan of the class.
+ * The PropertyValueParser that converts the property to each member's type is chosen here, once,
+ * and the members are also grouped by key, so that a change to one property re-injects only its members.
+ */
+final class PropertyInjectionPlan
+{
+    private static final MethodType SetterType = MethodType.methodType(void.class, Object.class, Object.class);
+    private final PropertyInjector<Object> generatedInjector;
+    private final InjectionPoint[] fields;
+    private final InjectionPoint[] methods;
+    private final Map<String, InjectionPoint[]> fieldsByKey;
+    private final Map<String, InjectionPoint[]> methodsByKey;
+    private final Set<String> keys;
+
+
+    private PropertyInjectionPlan(PropertyInjector<Object> generatedInjector, InjectionPoint[] fields, InjectionPoint[] methods)
+    {
+        this.generatedInjector = generatedInjector;
+        this.fields = fields;
+        this.methods = methods;
+        this.fieldsByKey = groupByKey(fields);
+        this.methodsByKey = groupByKey(methods);
+        Set<String> keys = new LinkedHashSet<>(fieldsByKey.keySet());
+        keys.addAll(methodsByKey.keySet());
+        this.keys = (generatedInjector != null) ? generatedInjector.getKeys() : Set.copyOf(keys);
+    }
+
+
+    private static Map<String, InjectionPoint[]> groupByKey(InjectionPoint[] injectionPoints)
+    {
+        Map<String, InjectionPoint[]> injectionPointsByKey = new HashMap<>();
+        Arrays.stream(injectionPoints)
+                        .collect(Collectors.groupingBy(injectionPoint -> injectionPoint.key))
+                        .forEach((key, keyInjectionPoints) -> injectionPointsByKey.put(key, keyInjectionPoints.toArray(new InjectionPoint[0])));
+        return injectionPointsByKey;
+    }
+
+
+    static PropertyInjectionPlan of(Class<?> type)
+    {
+        PropertyInjector<Object> generatedInjector = findGeneratedInjector(type);
+        if(generatedInjector != null)
+        {
+            return new PropertyInjectionPlan(generatedInjector, new InjectionPoint[0], new InjectionPoint[0]);
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<InjectionPoint> fields = new ArrayList<>();
+        for(Field field : type.getDeclaredFields())
+        {
+            Prop injection = field.getAnnotation(Prop.class);
+            if(injection != null && !Modifier.isStatic(field.getModifiers()))
+            {
+                try
+                {
+                    field.setAccessible(true);
+                    MethodHandle setter = lookup.unreflectSetter(field);
+                    fields.add(new InjectionPoint(injection.key(), setter.asType(SetterType), field.getType(), field.getGenericType(), field.toString()));
+                }
+                catch(IllegalAccessException | RuntimeException e)
+                {
+                    //inaccessible fields are skipped, as they always were
+                }
+            }
+        }
+        List<InjectionPoint> methods = new ArrayList<>();
+        for(Method method : type.getDeclaredMethods())
+        {
+            Prop injection = method.getAnnotation(Prop.class);
+            if(injection != null)
+            {
+                try
+                {
+                    method.setAccessible(true);
+                    MethodHandle setter = lookup.unreflect(method);
+                    if(Modifier.isStatic(method.getModifiers()))
+                    {
+                        setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                    }
+                    Class<?> parameterType = (method.getParameterCount() == 1) ? method.getParameterTypes()[0] : null;
+                    Type genericParameterType = (parameterType != null) ? method.getGenericParameterTypes()[0] : null;
+                    MethodHandle adaptedSetter = (parameterType != null) ? setter.asType(SetterType) : null;
+                    methods.add(new InjectionPoint(injection.key(), adaptedSetter, parameterType, genericParameterType, method.toString()));
+                }
+                catch(IllegalAccessException | RuntimeException e)
+                {
+                    //inaccessible methods are skipped, as they always were
+                }
+            }
+        }
+        return new PropertyInjectionPlan(null, fields.toArray(new InjectionPoint[0]), methods.toArray(new InjectionPoint[0]));
+    }
+
+
+    /**
+     * @return the generated injector of the type, if there is one and it implements PropertyInjector of exactly that type
+     */
+    @SuppressWarnings("unchecked")
+    private static PropertyInjector<Object> findGeneratedInjector(Class<?> type)
+    {
+        String injectorName = type.getName() + PropertyInjector.GeneratedClassNameSuffix;
+        try
+        {
+            Class<?> injectorClass = Class.forName(injectorName, true, type.getClassLoader());
+            if(isInjectorOf(injectorClass, type))
+            {
+                return (PropertyInjector<Object>)injectorClass.getDeclaredConstructor().newInstance();
+            }
+        }
+        catch(ReflectiveOperationException | LinkageError e)
+        {
+            //no generated injector, so reflection it is
+        }
+        return null;
+    }
+
+
+    private static boolean isInjectorOf(Class<?> injectorClass, Class<?> type)
+    {
+        for(Type implementedInterface : injectorClass.getGenericInterfaces())
+        {
+            if(implementedInterface instanceof ParameterizedType
+                            && ((ParameterizedType)implementedInterface).getRawType() == PropertyInjector.class
+                            && ((ParameterizedType)implementedInterface).getActualTypeArguments()[0] == type)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    Set<String> getKeys()
+    {
+        return keys;
+    }
+
+
+    void injectToFields(Object object)
+    {
+        if(generatedInjector != null)
+        {
+            generatedInjector.injectToFields(object);
+            return;
+        }
+        injectToFields(object, fields);
+    }
+
+
+    void injectToFields(Object object, String key)
+    {
+        if(generatedInjector != null)
+        {
+            generatedInjector.injectToFields(object, key);
+            return;
+        }
+        InjectionPoint[] keyFields = fieldsByKey.get(key);
+        if(keyFields != null)
+        {
+            injectToFields(object, keyFields);
+        }
+    }
+
+
+    private static void injectToFields(Object object, InjectionPoint[] fields)
+    {
+        for(InjectionPoint field : fields)
+        {
+            field.checkInjectable();
+            try
+            {
+                field.inject(object);
+            }
+            catch(RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch(Throwable e)
+            {
+                //a field setter cannot throw a checked exception
+            }
+        }
+    }
+
+
+    void injectToMethods(Object object)
+    {
+        if(generatedInjector != null)
+        {
+            generatedInjector.injectToMethods(object);
+            return;
+        }
+        injectToMethods(object, methods);
+    }
+
+
+    void injectToMethods(Object object, String key)
+    {
+        if(generatedInjector != null)
+        {
+            generatedInjector.injectToMethods(object, key);
+            return;
+        }
+        InjectionPoint[] keyMethods = methodsByKey.get(key);
+        if(keyMethods != null)
+        {
+            injectToMethods(object, keyMethods);
+        }
+    }
+
+
+    private static void injectToMethods(Object object, InjectionPoint[] methods)
+    {
+        for(InjectionPoint method : methods)
+        {
+            method.checkInjectable();
+            try
+            {
+                method.inject(object);
+            }
+            catch(Error e)
+            {
+                throw e;
+            }
+            catch(Throwable e)
+            {
+                //exceptions thrown by the annotated method are ignored, as they always were
+            }
+        }
+    }
+
+
+    /**
+     * String-compatible members get the property as it is, null included.
+     * Other members get it through their parser and are left untouched
+     * when the property is missing or cannot be converted.
+     */
+    private static final class InjectionPoint
+    {
+        private final String key;
+        private final MethodHandle setter;
+        private final boolean acceptsString;
+        private final PropertyValueParser<?> parser;
+        private final String member;
+
+
+        private InjectionPoint(String key, MethodHandle setter, Class<?> type, Type genericType, String member)
+        {
+            this.key = key;
+            this.setter = setter;
+            this.acceptsString = setter != null && type.isAssignableFrom(String.class);
+            this.parser = (setter != null && !acceptsString) ? PropertyValueParsers.forType(genericType) : null;
+            this.member = member;
+        }
+
+
+        private void checkInjectable()
+        {
+            if(!acceptsString && parser == null)
+            {
+                throw new IllegalArgumentException("Cannot convert a property to the type of " + member);
+            }
+        }
+
+
+        private void inject(Object object) throws Throwable
+        {
+            if(acceptsString)
+            {
+                setter.invokeExact(object, (Object)InMemoryConfigurationService.getProp(key));
+            }
+            else
+            {
+                Object value = InMemoryConfigurationService.getConvertedProp(key, parser);
+                if(value != null)
+                {
+                    setter.invokeExact(object, value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.orionlibs.orion_configuration.annotations.prop;
+
+import java.util.Set;
+
+/**
+ * injects the @Prop members of one class without reflection.
+ * Implementations are generated at compile time by PropertyInjectorProcessor as top-level classes named after
+ * the binary name of the target class with GeneratedClassNameSuffix appended, e.g. a.b.Outer$Inner_PropInjector,
+ * so that no two classes share an injector, and picked up by PropertyDependencyInjectorService when they are on the classpath.
+ */
+public interface PropertyInjector<T>
+{
+    String GeneratedClassNameSuffix = "_PropInjector";
+
+
+    /**
+     * @return the keys of all the @Prop members of the class
+     */
+    Set<String> getKeys();
+
+
+    void injectToFields(T object);
+
+
+    /**
+     * injects only the fields bound to the given key
+     */
+    void injectToFields(T object, String key);
+
+
+    void injectToMethods(T object);
+
+
+    /**
+     * injects only the methods bound to the given key
+     */
+    void injectToMethods(T object, String key);
+}
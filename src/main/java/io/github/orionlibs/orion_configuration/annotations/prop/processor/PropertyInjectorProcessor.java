@@ -0,0 +1,378 @@
+package io.github.orionlibs.orion_configuration.annotations.prop.processor;
+
+import io.github.orionlibs.orion_configuration.annotations.prop.Prop;
+import io.github.orionlibs.orion_configuration.annotations.prop.PropertyInjector;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * generates a PropertyInjector for every class with @Prop members, so that
+ * PropertyDependencyInjectorService can inject them through plain assignments and calls.
+ * Members that are not String-compatible get a PropertyValueParser, resolved once in a static field
+ * of the injector, and follow the same rules as reflection-based injection.
+ * A class is left to reflection-based injection if any of its @Prop members cannot be reached
+ * from generated code in the same package, e.g. private or final members.
+ * It also lists the generated injectors in a reflect-config.json, so that GraalVM native images
+ * can instantiate them.
+ * javac discovers it on the class path through META-INF/services; from JDK 23 on, where class path
+ * discovery is off by default, compile with -proc:full or put this library on the processor path.
+ */
+@SupportedAnnotationTypes("io.github.orionlibs.orion_configuration.annotations.prop.Prop")
+public class PropertyInjectorProcessor extends AbstractProcessor
+{
+    private static final String NativeImageConfiguration = "META-INF/native-image/io.github.orionlibs/orion-configuration-injectors/reflect-config.json";
+    private static final Set<String> ScalarTypes = Stream.of(Boolean.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, Character.class,
+                                    String.class, java.math.BigDecimal.class, java.math.BigInteger.class, java.time.Duration.class)
+                    .map(Class::getName)
+                    .collect(Collectors.toSet());
+    private static final Set<String> ListTypes = Set.of("java.util.List", "java.util.Collection", "java.lang.Iterable");
+    private final List<String> generatedInjectors = new ArrayList<>();
+
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment)
+    {
+        if(roundEnvironment.processingOver())
+        {
+            writeNativeImageConfiguration();
+            return false;
+        }
+        Map<TypeElement, List<Element>> membersByType = new LinkedHashMap<>();
+        for(Element member : roundEnvironment.getElementsAnnotatedWith(Prop.class))
+        {
+            membersByType.computeIfAbsent((TypeElement)member.getEnclosingElement(), type -> new ArrayList<>()).add(member);
+        }
+        membersByType.forEach(this::generateInjector);
+        return false;
+    }
+
+
+    private void generateInjector(TypeElement type, List<Element> members)
+    {
+        String reasonToSkip = findReasonToSkip(type, members);
+        if(reasonToSkip != null)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "@Prop members of " + type + " will be injected through reflection: " + reasonToSkip);
+            return;
+        }
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String injectorName = binaryNameInPackage(type, packageName) + PropertyInjector.GeneratedClassNameSuffix;
+        String qualifiedInjectorName = packageName.isEmpty() ? injectorName : packageName + "." + injectorName;
+        String targetType = type.getQualifiedName().toString();
+        StringBuilder parsers = new StringBuilder();
+        Map<String, List<Element>> fieldsByKey = new LinkedHashMap<>();
+        Map<String, List<Element>> methodsByKey = new LinkedHashMap<>();
+        Map<Element, String> parserFields = new LinkedHashMap<>();
+        for(Element member : members)
+        {
+            if(member.getKind() == ElementKind.FIELD && member.getModifiers().contains(Modifier.STATIC))
+            {
+                continue;
+            }
+            String key = member.getAnnotation(Prop.class).key();
+            (member.getKind() == ElementKind.FIELD ? fieldsByKey : methodsByKey).computeIfAbsent(key, k -> new ArrayList<>()).add(member);
+            TypeMirror memberType = injectedType(member);
+            if(!isStringCompatible(memberType))
+            {
+                String parserField = "Parser" + parserFields.size();
+                parserFields.put(member, parserField);
+                parsers.append("    private static final PropertyValueParser<?> ").append(parserField).append(" = ").append(parserExpression(memberType)).append(";\n");
+            }
+        }
+        Set<String> keys = new LinkedHashSet<>(fieldsByKey.keySet());
+        keys.addAll(methodsByKey.keySet());
+        StringBuilder source = new StringBuilder();
+        if(!packageName.isEmpty())
+        {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import io.github.orionlibs.orion_configuration.InMemoryConfigurationService;\n")
+                        .append("import io.github.orionlibs.orion_configuration.PropertyValueParser;\n")
+                        .append("import io.github.orionlibs.orion_configuration.PropertyValueParsers;\n")
+                        .append("import io.github.orionlibs.orion_configuration.annotations.prop.PropertyInjector;\n")
+                        .append("import java.util.Set;\n\n")
+                        .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                        .append("@SuppressWarnings(\"unchecked\")\n")
+                        .append("public final class ").append(injectorName).append(" implements PropertyInjector<").append(targetType).append(">\n")
+                        .append("{\n")
+                        .append("    private static final Set<String> Keys = Set.of(").append(keys.stream().map(this::constant).collect(Collectors.joining(", "))).append(");\n")
+                        .append(parsers).append("\n\n")
+                        .append("    @Override\n")
+                        .append("    public Set<String> getKeys()\n")
+                        .append("    {\n")
+                        .append("        return Keys;\n")
+                        .append("    }\n\n\n");
+        appendInjectionMethods(source, "injectToFields", targetType, fieldsByKey, parserFields);
+        source.append("\n\n");
+        appendInjectionMethods(source, "injectToMethods", targetType, methodsByKey, parserFields);
+        source.append("}\n");
+        try(Writer writer = processingEnv.getFiler().createSourceFile(qualifiedInjectorName, type).openWriter())
+        {
+            writer.write(source.toString());
+            generatedInjectors.add(qualifiedInjectorName);
+        }
+        catch(IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not generate " + qualifiedInjectorName + ": " + e.getMessage(), type);
+        }
+    }
+
+
+    /**
+     * appends the method that injects every member, and its overload that injects only the members bound to one key
+     */
+    private void appendInjectionMethods(StringBuilder source, String methodName, String targetType, Map<String, List<Element>> membersByKey, Map<Element, String> parserFields)
+    {
+        source.append("    @Override\n")
+                        .append("    public void ").append(methodName).append('(').append(targetType).append(" object)\n")
+                        .append("    {\n");
+        membersByKey.values().forEach(keyMembers -> keyMembers.forEach(member -> appendInjection(source, member, targetType, parserFields.get(member), "        ")));
+        source.append("    }\n\n\n")
+                        .append("    @Override\n")
+                        .append("    public void ").append(methodName).append('(').append(targetType).append(" object, String key)\n")
+                        .append("    {\n")
+                        .append("        switch(key)\n")
+                        .append("        {\n");
+        membersByKey.forEach((key, keyMembers) ->
+        {
+            source.append("            case ").append(constant(key)).append(":\n");
+            source.append("            {\n");
+            keyMembers.forEach(member -> appendInjection(source, member, targetType, parserFields.get(member), "                "));
+            source.append("                break;\n");
+            source.append("            }\n");
+        });
+        source.append("        }\n")
+                        .append("    }\n");
+    }
+
+
+    private void appendInjection(StringBuilder source, Element member, String targetType, String parserField, String indentation)
+    {
+        String key = constant(member.getAnnotation(Prop.class).key());
+        String value = "InMemoryConfigurationService.getProp(" + key + ")";
+        String outerIndentation = indentation;
+        if(parserField != null)
+        {
+            String variable = "value" + parserField.substring("Parser".length());
+            source.append(indentation).append("Object ").append(variable).append(" = InMemoryConfigurationService.getConvertedProp(").append(key).append(", ").append(parserField).append(");\n")
+                            .append(indentation).append("if(").append(variable).append(" != null)\n")
+                            .append(indentation).append("{\n");
+            indentation += "    ";
+            value = "(" + boxedTypeName(injectedType(member)) + ")" + variable;
+        }
+        if(member.getKind() == ElementKind.FIELD)
+        {
+            source.append(indentation).append("object.").append(member.getSimpleName()).append(" = ").append(value).append(";\n");
+        }
+        else
+        {
+            String receiver = member.getModifiers().contains(Modifier.STATIC) ? targetType : "object";
+            source.append(indentation).append("try\n")
+                            .append(indentation).append("{\n")
+                            .append(indentation).append("    ").append(receiver).append('.').append(member.getSimpleName()).append('(').append(value).append(");\n")
+                            .append(indentation).append("}\n")
+                            .append(indentation).append("catch(Exception e)\n")
+                            .append(indentation).append("{\n")
+                            .append(indentation).append("    //exceptions thrown by @Prop methods are ignored, as with reflection-based injection\n")
+                            .append(indentation).append("}\n");
+        }
+        if(parserField != null)
+        {
+            source.append(outerIndentation).append("}\n");
+        }
+    }
+
+
+    private String constant(String value)
+    {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+
+    private String findReasonToSkip(TypeElement type, List<Element> members)
+    {
+        if(type.getKind() != ElementKind.CLASS || !type.getTypeParameters().isEmpty())
+        {
+            return "only non-generic classes are supported";
+        }
+        for(Element enclosingType = type; enclosingType instanceof TypeElement; enclosingType = enclosingType.getEnclosingElement())
+        {
+            NestingKind nestingKind = ((TypeElement)enclosingType).getNestingKind();
+            if(enclosingType.getModifiers().contains(Modifier.PRIVATE)
+                            || nestingKind == NestingKind.LOCAL
+                            || nestingKind == NestingKind.ANONYMOUS
+                            || (nestingKind == NestingKind.MEMBER && !enclosingType.getModifiers().contains(Modifier.STATIC)))
+            {
+                return enclosingType + " is private, local, anonymous or an inner class";
+            }
+        }
+        for(Element member : members)
+        {
+            Set<Modifier> modifiers = member.getModifiers();
+            if(member.getKind() == ElementKind.FIELD && modifiers.contains(Modifier.STATIC))
+            {
+                continue;
+            }
+            if(modifiers.contains(Modifier.PRIVATE))
+            {
+                return member + " is private";
+            }
+            if(member.getKind() == ElementKind.FIELD && modifiers.contains(Modifier.FINAL))
+            {
+                return member + " is final";
+            }
+            if(member.getKind() == ElementKind.METHOD && ((ExecutableElement)member).getParameters().size() != 1)
+            {
+                return member + " does not take a single parameter";
+            }
+            TypeMirror memberType = injectedType(member);
+            if(!isStringCompatible(memberType) && parserExpression(memberType) == null)
+            {
+                return "no property conversion to the type of " + member;
+            }
+        }
+        return null;
+    }
+
+
+    private static TypeMirror injectedType(Element member)
+    {
+        if(member.getKind() == ElementKind.FIELD)
+        {
+            return member.asType();
+        }
+        List<? extends VariableElement> parameters = ((ExecutableElement)member).getParameters();
+        return parameters.get(0).asType();
+    }
+
+
+    private boolean isStringCompatible(TypeMirror type)
+    {
+        return processingEnv.getTypeUtils().isAssignable(processingEnv.getElementUtils().getTypeElement("java.lang.String").asType(), type);
+    }
+
+
+    /**
+     * mirrors PropertyValueParsers.forType(java.lang.reflect.Type)
+     * @return the Java expression that resolves the parser for the given type, or null if it has none
+     */
+    private String parserExpression(TypeMirror type)
+    {
+        if(type.getKind().isPrimitive())
+        {
+            return "PropertyValueParsers.forType(" + type + ".class)";
+        }
+        String scalarType = scalarTypeName(type);
+        if(scalarType != null)
+        {
+            return "PropertyValueParsers.forType(" + scalarType + ".class)";
+        }
+        if(type.getKind() == TypeKind.DECLARED)
+        {
+            DeclaredType declaredType = (DeclaredType)type;
+            String rawType = ((TypeElement)declaredType.asElement()).getQualifiedName().toString();
+            if(ListTypes.contains(rawType))
+            {
+                List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+                String elementType = typeArguments.isEmpty() ? "java.lang.String" : scalarTypeName(typeArguments.get(0));
+                return (elementType != null && typeArguments.size() <= 1) ? "PropertyValueParsers.forListOf(" + elementType + ".class)" : null;
+            }
+        }
+        return null;
+    }
+
+
+    private static String scalarTypeName(TypeMirror type)
+    {
+        if(type.getKind() != TypeKind.DECLARED)
+        {
+            return null;
+        }
+        TypeElement typeElement = (TypeElement)((DeclaredType)type).asElement();
+        String typeName = typeElement.getQualifiedName().toString();
+        boolean isAccessibleEnum = typeElement.getKind() == ElementKind.ENUM && !typeElement.getModifiers().contains(Modifier.PRIVATE);
+        return (ScalarTypes.contains(typeName) || isAccessibleEnum) ? typeName : null;
+    }
+
+
+    private String boxedTypeName(TypeMirror type)
+    {
+        if(type.getKind().isPrimitive())
+        {
+            return processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType)type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+
+    /**
+     * @return e.g. Outer$Inner, which, unlike a name joined with '_', no top-level class of the package can also have
+     */
+    private String binaryNameInPackage(TypeElement type, String packageName)
+    {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        return packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+    }
+
+
+    private void writeNativeImageConfiguration()
+    {
+        if(generatedInjectors.isEmpty())
+        {
+            return;
+        }
+        StringBuilder configuration = new StringBuilder("[\n");
+        for(int i = 0; i < generatedInjectors.size(); i++)
+        {
+            configuration.append("  {\"name\": \"").append(generatedInjectors.get(i)).append("\", \"methods\": [{\"name\": \"<init>\", \"parameterTypes\": []}]}")
+                            .append(i < generatedInjectors.size() - 1 ? ",\n" : "\n");
+        }
+        configuration.append("]\n");
+        try
+        {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", NativeImageConfiguration);
+            try(Writer writer = file.openWriter())
+            {
+                writer.write(configuration.toString());
+            }
+        }
+        catch(IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not write " + NativeImageConfiguration + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.orionlibs.orion_configuration.tasks;
+
+/**
+ * turns a variable name into a key with the convention it is written in:
+ * names with underscores or without lower case letters, like MAX_POOL_SIZE or URL, use
+ * ProcessStaticVariableNameWithUnderscoresTask and any other name, like maxPoolSize,
+ * uses ProcessStaticVariableNameWithCamelCaseTask
+ */
+public class ProcessStaticVariableNameTask
+{
+    public static String run(String variableName)
+    {
+        boolean hasLowerCaseLetters = false;
+        for(int i = 0; i < variableName.length(); i++)
+        {
+            char character = variableName.charAt(i);
+            if(character == '_')
+            {
+                return ProcessStaticVariableNameWithUnderscoresTask.toKey(variableName);
+            }
+            hasLowerCaseLetters |= Character.isLowerCase(character);
+        }
+        return hasLowerCaseLetters ? ProcessStaticVariableNameWithCamelCaseTask.toKey(variableName) : ProcessStaticVariableNameWithUnderscoresTask.toKey(variableName);
+    }
+}
@@ -1,22 +1,37 @@
 package io.github.orionlibs.orion_configuration.tasks;
 
+/**
+ * turns maxPoolSize into max.pool.size in a single pass over the name
+ */
 public class ProcessStaticVariableNameWithCamelCaseTask
 {
     public static void run(String variableName, StringBuilder key)
     {
-        char[] characters = variableName.toCharArray();
-        key.append(Character.toLowerCase(characters[0]));
-        for(int i = 1; i < characters.length; i++)
+        int length = variableName.length();
+        if(length == 0)
         {
-            if(Character.isUpperCase(characters[i]))
+            return;
+        }
+        key.append(Character.toLowerCase(variableName.charAt(0)));
+        for(int i = 1; i < length; i++)
+        {
+            char character = variableName.charAt(i);
+            if(Character.isUpperCase(character))
             {
-                key.append(".");
-                key.append(Character.toLowerCase(characters[i]));
+                key.append('.').append(Character.toLowerCase(character));
             }
             else
             {
-                key.append(characters[i]);
+                key.append(character);
             }
         }
     }
-}
\ No newline at end of file
+
+
+    public static String toKey(String variableName)
+    {
+        StringBuilder key = new StringBuilder(variableName.length() + 4);
+        run(variableName, key);
+        return key.toString();
+    }
+}
@@ -1,17 +1,30 @@
 package io.github.orionlibs.orion_configuration.tasks;
 
+/**
+ * turns MAX_POOL_SIZE into max.pool.size in a single pass over the name
+ */
 public class ProcessStaticVariableNameWithUnderscoresTask
 {
     public static void run(String variableName, StringBuilder key)
     {
-        String[] tokens = variableName.split("_");
-        for(int i = 0; i < tokens.length; i++)
+        //like split("_"), trailing underscores produce no empty tokens
+        int length = variableName.length();
+        while(length > 0 && variableName.charAt(length - 1) == '_')
         {
-            key.append(tokens[i].toLowerCase());
-            if(i < tokens.length - 1)
-            {
-                key.append(".");
-            }
+            length--;
         }
+        for(int i = 0; i < length; i++)
+        {
+            char character = variableName.charAt(i);
+            key.append((character == '_') ? '.' : Character.toLowerCase(character));
+        }
+    }
+
+
+    public static String toKey(String variableName)
+    {
+        StringBuilder key = new StringBuilder(variableName.length());
+        run(variableName, key);
+        return key.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,260 @@
+package io.github.orionlibs.orion_configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * compares CompactPropertyMap, on its own and as the store of a ConfigurationRegistry, with a HashMap.
+ * The key spaces are larger than the overlay that triggers a fold, so the tables are rebuilt many times.
+ */
+public class CompactPropertyMapTest
+{
+    /**
+     * "" gives keys without a dot, and "\ud800" and "\udc00" lone surrogates, which UTF-8 would encode as the "?" of another part
+     */
+    private static final String[] KeyParts = {"", "a", "db", "pool", "xé", "😀", "\ud800", "\udc00z", "?", "?z"};
+    private static final String[] Prefixes = {"", "a", "a.", "db.pool", "db.pool.", "xé.", "\ud83d", "\ud800", "?", "."};
+
+
+    @Test
+    void matchesAHashMapUnderRandomWrites()
+    {
+        Random random = new Random(20240613L);
+        CompactPropertyMap properties = new CompactPropertyMap();
+        Map<String, String> expected = new HashMap<>();
+        List<Object[]> copies = new ArrayList<>();
+        for(int i = 0; i < 200_000; i++)
+        {
+            String key = randomKey(random, 8_000);
+            int operation = random.nextInt(100);
+            if(operation < 60)
+            {
+                String value = "v" + random.nextInt(100);
+                PropertyValue previous = properties.putValue(key, new PropertyValue(value));
+                assertEquals(expected.put(key, value), valueOf(previous), key);
+            }
+            else if(operation < 90)
+            {
+                assertEquals(expected.remove(key), valueOf(properties.removeValue(key)), key);
+            }
+            else if(operation < 99)
+            {
+                assertEquals(expected.get(key), valueOf(properties.get(key)), key);
+                assertEquals(expected.containsKey(key), properties.containsKey(key), key);
+            }
+            else if(random.nextInt(20) == 0)
+            {
+                //the registry writes a batch to a copy of a shared store, and publishes the copy
+                properties.markShared();
+                copies.add(new Object[] {properties, new HashMap<>(expected)});
+                properties = (CompactPropertyMap)properties.copy();
+            }
+            else
+            {
+                properties.batchWritten();
+            }
+        }
+        assertMatches(expected, properties);
+        for(Object[] copy : copies)
+        {
+            @SuppressWarnings("unchecked")
+            Map<String, String> expectedCopy = (Map<String, String>)copy[1];
+            assertMatches(expectedCopy, (CompactPropertyMap)copy[0]);
+        }
+    }
+
+
+    @Test
+    void keepsKeysWithLoneSurrogatesApartFromKeysWithTheirLossyEncoding()
+    {
+        CompactPropertyMap properties = new CompactPropertyMap();
+        properties.putValue("a.x\ud800", new PropertyValue("lone"));
+        properties.putValue("a.x?", new PropertyValue("question mark"));
+        properties.putValue("\udc00", new PropertyValue("lone without a dot"));
+        for(int i = 0; i < 10_000; i++)
+        {
+            properties.putValue("a.b" + i, new PropertyValue(i));
+        }
+        properties.batchWritten();
+        assertEquals("lone", properties.get("a.x\ud800").getValue());
+        assertEquals("question mark", properties.get("a.x?").getValue());
+        assertEquals("lone without a dot", properties.get("\udc00").getValue());
+        assertNull(properties.get("a.x\udc00"));
+        assertNull(properties.get("?"));
+        assertEquals(10_003, properties.size());
+        assertEquals("lone", properties.removeValue("a.x\ud800").getValue());
+        assertNull(properties.get("a.x\ud800"));
+        assertEquals("question mark", properties.get("a.x?").getValue());
+        assertEquals(10_002, properties.size());
+    }
+
+
+    @Test
+    void compactRegistryMatchesAHashMap()
+    {
+        Random random = new Random(20240614L);
+        ConfigurationRegistry registry = new ConfigurationRegistry(ConfigurationRegistryOptions.builder()
+                        .systemPropertiesMode(ConfigurationRegistryOptions.SystemPropertiesMode.Skipped)
+                        .compactStorageEnabled(true)
+                        .build());
+        Map<String, String> expected = new HashMap<>();
+        List<Object[]> snapshots = new ArrayList<>();
+        for(int i = 0; i < 50_000; i++)
+        {
+            String key = randomKey(random, 5_000);
+            if(key.isEmpty())
+            {
+                //getProp reads nothing for the empty key, whatever the store holds
+                continue;
+            }
+            int operation = random.nextInt(100);
+            if(operation < 55)
+            {
+                String value = "v" + random.nextInt(50);
+                registry.updateProp(key, value);
+                expected.put(key, value);
+            }
+            else if(operation < 80)
+            {
+                registry.deleteProp(key);
+                expected.remove(key);
+            }
+            else if(operation < 98)
+            {
+                assertEquals(expected.get(key), registry.getProp(key), key);
+            }
+            else if(operation < 99)
+            {
+                if(random.nextInt(10) == 0)
+                {
+                    snapshots.add(new Object[] {registry.snapshot(), new HashMap<>(expected)});
+                }
+            }
+            else
+            {
+                Map<String, String> changes = new HashMap<>();
+                for(int j = random.nextInt(2_000); j > 0; j--)
+                {
+                    String changedKey = randomKey(random, 5_000);
+                    if(!changedKey.isEmpty())
+                    {
+                        changes.put(changedKey, random.nextInt(4) == 0 ? null : "w" + random.nextInt(20));
+                    }
+                }
+                registry.update(batch -> changes.forEach((changedKey, value) ->
+                {
+                    if(value == null)
+                    {
+                        batch.deleteProp(changedKey);
+                    }
+                    else
+                    {
+                        batch.updateProp(changedKey, value);
+                    }
+                }));
+                changes.forEach((changedKey, value) ->
+                {
+                    if(value == null)
+                    {
+                        expected.remove(changedKey);
+                    }
+                    else
+                    {
+                        expected.put(changedKey, value);
+                    }
+                });
+            }
+        }
+        assertMatches(expected, registry);
+        for(Object[] snapshot : snapshots)
+        {
+            @SuppressWarnings("unchecked")
+            Map<String, String> expectedSnapshot = (Map<String, String>)snapshot[1];
+            assertMatches(expectedSnapshot, (ConfigurationRegistry)snapshot[0]);
+        }
+    }
+
+
+    /**
+     * @return one of keySpace keys of one to four parts, so that keys repeat
+     */
+    private static String randomKey(Random random, int keySpace)
+    {
+        Random keyRandom = new Random(random.nextInt(keySpace));
+        StringBuilder key = new StringBuilder();
+        for(int i = 1 + keyRandom.nextInt(4); i > 0; i--)
+        {
+            key.append(KeyParts[keyRandom.nextInt(KeyParts.length)]);
+            if(keyRandom.nextBoolean())
+            {
+                key.append(keyRandom.nextInt(100));
+            }
+            if(i > 1)
+            {
+                key.append('.');
+            }
+        }
+        return key.toString();
+    }
+
+
+    private static String valueOf(PropertyValue value)
+    {
+        return (value != null) ? (String)value.getValue() : null;
+    }
+
+
+    private static void assertMatches(Map<String, String> expected, CompactPropertyMap properties)
+    {
+        assertEquals(expected.size(), properties.size());
+        Map<String, String> visited = new HashMap<>();
+        properties.forEach((key, value) -> visited.put(key, valueOf(value)));
+        assertEquals(expected, visited);
+        Map<String, String> iterated = new HashMap<>();
+        properties.entrySet().forEach(entry -> iterated.put(entry.getKey(), valueOf(entry.getValue())));
+        assertEquals(expected, iterated);
+        expected.forEach((key, value) -> assertEquals(value, valueOf(properties.get(key)), key));
+        for(String prefix : Prefixes)
+        {
+            List<String> keysWithPrefix = new ArrayList<>();
+            properties.forEachKeyWithPrefix(prefix, keysWithPrefix::add);
+            assertEquals(new ArrayList<>(withPrefix(expected, prefix).keySet()), keysWithPrefix, prefix);
+        }
+    }
+
+
+    private static void assertMatches(Map<String, String> expected, ConfigurationRegistry registry)
+    {
+        assertEquals(expected.size(), registry.size());
+        Map<String, String> visited = new HashMap<>();
+        registry.forEachProp(visited::put);
+        assertEquals(expected, visited);
+        expected.forEach((key, value) -> assertEquals(value, registry.getProp(key), key));
+        for(String prefix : Prefixes)
+        {
+            assertEquals(new ArrayList<>(withPrefix(expected, prefix).entrySet()), new ArrayList<>(registry.getPropsWithPrefix(prefix).entrySet()), prefix);
+        }
+    }
+
+
+    private static TreeMap<String, String> withPrefix(Map<String, String> properties, String prefix)
+    {
+        TreeMap<String, String> propertiesWithPrefix = new TreeMap<>();
+        properties.forEach((key, value) ->
+        {
+            if(key.startsWith(prefix))
+            {
+                propertiesWithPrefix.put(key, value);
+            }
+        });
+        return propertiesWithPrefix;
+    }
+}
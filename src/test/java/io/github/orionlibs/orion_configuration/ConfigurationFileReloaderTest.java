@@ -0,0 +1,41 @@
+package io.github.orionlibs.orion_configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ConfigurationFileReloaderTest
+{
+    @TempDir
+    Path directory;
+
+
+    @Test
+    void removingAKeyWithReferencesFromAWatchedFileDeletesIt() throws Exception
+    {
+        ConfigurationRegistry registry = new ConfigurationRegistry(ConfigurationRegistryOptions.builder()
+                        .propertyReferencesEnabled(true)
+                        .systemPropertiesMode(ConfigurationRegistryOptions.SystemPropertiesMode.Skipped)
+                        .build());
+        Path file = directory.resolve("application.properties");
+        Files.writeString(file, "db.host=localhost\ndb.url=jdbc:${db.host}\n");
+        try(ConfigurationFileReloader reloader = ConfigurationFileReloader.ofPolling(registry, Duration.ofMillis(10)))
+        {
+            reloader.watch(file);
+            assertEquals("jdbc:localhost", registry.getProp("db.url"));
+            Files.writeString(file, "db.host=localhost\n");
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while(registry.getProp("db.url") != null && System.nanoTime() - deadline < 0)
+            {
+                Thread.sleep(10);
+            }
+            assertNull(registry.getProp("db.url"));
+            assertEquals("localhost", registry.getProp("db.host"));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.orionlibs.orion_configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class ConfigurationRegistryTest
+{
+    private static final String SystemPropertyKey = "orion.configuration.test.fallback";
+
+
+    @AfterEach
+    void clearSystemProperty()
+    {
+        System.clearProperty(SystemPropertyKey);
+    }
+
+
+    @Test
+    void deletingAKeyUncoversTheSystemPropertyForItsHandles()
+    {
+        System.setProperty(SystemPropertyKey, "system");
+        ConfigurationRegistry registry = new ConfigurationRegistry(ConfigurationRegistryOptions.builder()
+                        .systemPropertiesMode(ConfigurationRegistryOptions.SystemPropertiesMode.Fallback)
+                        .build());
+        StringPropertyHandle handle = registry.stringHandle(SystemPropertyKey, "default");
+        assertEquals("system", handle.get());
+        registry.registerProp(SystemPropertyKey, "registry");
+        assertEquals("registry", handle.get());
+        registry.deleteProp(SystemPropertyKey);
+        assertEquals("system", registry.getProp(SystemPropertyKey));
+        assertEquals("system", handle.get());
+    }
+
+
+    @Test
+    void deletingAKeyInABatchUncoversTheSystemPropertyForItsHandles()
+    {
+        System.setProperty(SystemPropertyKey, "system");
+        ConfigurationRegistry registry = new ConfigurationRegistry(ConfigurationRegistryOptions.builder()
+                        .systemPropertiesMode(ConfigurationRegistryOptions.SystemPropertiesMode.Fallback)
+                        .build());
+        StringPropertyHandle handle = registry.stringHandle(SystemPropertyKey, "default");
+        registry.update(batch ->
+        {
+            batch.registerProp(SystemPropertyKey, "registry");
+            batch.registerProp("other.key", "value");
+        });
+        assertEquals("registry", handle.get());
+        registry.update(batch ->
+        {
+            batch.deleteProp(SystemPropertyKey);
+            batch.deleteProp("other.key");
+        });
+        assertEquals("system", handle.get());
+    }
+
+
+    @Test
+    void deletingAKeyResetsItsHandlesToTheirDefaultWithoutAFallback()
+    {
+        ConfigurationRegistry registry = new ConfigurationRegistry(ConfigurationRegistryOptions.builder()
+                        .systemPropertiesMode(ConfigurationRegistryOptions.SystemPropertiesMode.Skipped)
+                        .build());
+        IntPropertyHandle handle = registry.intHandle("pool.size", 4);
+        registry.registerProp("pool.size", "8");
+        assertEquals(8, handle.get());
+        registry.deleteProp("pool.size");
+        assertEquals(4, handle.get());
+    }
+}
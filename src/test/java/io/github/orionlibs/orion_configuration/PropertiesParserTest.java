@@ -0,0 +1,272 @@
+package io.github.orionlibs.orion_configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.orionlibs.orion_assert.ResourceException;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * compares PropertiesParser, and the mapped loads of ConfigurationRegistry that use it, with Properties.load
+ */
+public class PropertiesParserTest
+{
+    private static final String RandomDocumentAlphabet = "ab=: \t\f\\\n\r#!u0F9\u00e9";
+    @TempDir
+    Path directory;
+
+
+    static Stream<String> documents()
+    {
+        return Stream.of("",
+                        "a=b",
+                        "a=b\n",
+                        "a = b\r\nc:d\re\tf\n",
+                        "key value with spaces  \n",
+                        "  indented=value\n\t\fx=y",
+                        "a==b\na::b\na=:b",
+                        "a\n",
+                        "a=\n",
+                        "=value\n:other",
+                        "# comment\n! bang comment\n  # indented comment\nk=v",
+                        "#comment with continuation \\\nk=v",
+                        "k=v # not a comment",
+                        "\n\n\r\n\r\rk=v\n\n",
+                        "duplicate=1\nduplicate=2",
+                        "a\\=b=c\na\\:b:c\na\\ b c",
+                        "tab\\tnew\\nline\\rfeed\\f=\\t\\n\\r\\f",
+                        "escaped=\\q\\\\\\#\\!",
+                        "unicode=\\u0041\\u00e9\\u20AC",
+                        "\\u0041key=value",
+                        "split=\\u00\\\n   41",
+                        "split=\\u\\\n0\\\n0\\\r\n4\\\r1",
+                        "continued=first \\\n    second \\\r\n\tthird",
+                        "continued=\\\n",
+                        "key\\\n  continued=value",
+                        "key \\\n = value",
+                        "two\\\\\nthree=4",
+                        "trailing=\\",
+                        "\\",
+                        "\\\n",
+                        "\\\r",
+                        "\\\r\n",
+                        "\\\n  ",
+                        "\\\n\\\n",
+                        "  \\\n",
+                        "\\\n \\\n",
+                        "\\\nkey",
+                        "\\\n#comment",
+                        "x\n\\",
+                        "x=1\n\\\n",
+                        "latin=\u00e9\u00ff");
+    }
+
+
+    @ParameterizedTest
+    @MethodSource("documents")
+    void parsesLikePropertiesLoad(String document) throws Exception
+    {
+        byte[] bytes = document.getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(load(bytes, StandardCharsets.ISO_8859_1), parse(PropertiesParser.of(), new ByteArrayInputStream(bytes)));
+    }
+
+
+    @ParameterizedTest
+    @MethodSource("documents")
+    void parsesUtf8LikePropertiesLoadOfAReader(String document) throws Exception
+    {
+        byte[] bytes = (document + "\nnon.latin=\u20ac \ud83d\ude00 \u4e2d\u6587").getBytes(StandardCharsets.UTF_8);
+        assertEquals(load(bytes, StandardCharsets.UTF_8), parse(PropertiesParser.of(StandardCharsets.UTF_8), new ByteArrayInputStream(bytes)));
+    }
+
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a=\\u", "a=\\u12", "a=\\u12G4", "a=\\u00\nb", "\\uXYZW=value", "a=\\u12\\\n"})
+    void rejectsMalformedUnicodeEscapesLikePropertiesLoad(String document)
+    {
+        byte[] bytes = document.getBytes(StandardCharsets.ISO_8859_1);
+        assertThrows(IllegalArgumentException.class, () -> load(bytes, StandardCharsets.ISO_8859_1));
+        assertThrows(ResourceException.class, () -> parse(PropertiesParser.of(), new ByteArrayInputStream(bytes)));
+    }
+
+
+    @Test
+    void rejectsCharsetsWithMultiByteAsciiChars()
+    {
+        assertThrows(IllegalArgumentException.class, () -> PropertiesParser.of(StandardCharsets.UTF_16));
+    }
+
+
+    /**
+     * the input arrives a few bytes per read, so escapes and \r\n are split between reads
+     */
+    @Test
+    void parsesRandomDocumentsLikePropertiesLoad() throws Exception
+    {
+        Random random = new Random(20240611L);
+        for(int i = 0; i < 20_000; i++)
+        {
+            Charset charset = random.nextBoolean() ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+            String document = randomDocument(random);
+            byte[] bytes = document.getBytes(charset);
+            Map<String, String> expected;
+            try
+            {
+                expected = load(bytes, charset);
+            }
+            catch(IllegalArgumentException e)
+            {
+                assertThrows(ResourceException.class, () -> parse(PropertiesParser.of(charset), new TrickleInputStream(bytes, random)), document);
+                continue;
+            }
+            assertEquals(expected, parse(PropertiesParser.of(charset), new TrickleInputStream(bytes, random)), document);
+        }
+    }
+
+
+    @Test
+    void loadsRandomMappedFilesLikePropertiesLoad() throws Exception
+    {
+        Random random = new Random(20240612L);
+        Path file = directory.resolve("random.properties");
+        for(int i = 0; i < 1_000; i++)
+        {
+            Charset charset = random.nextBoolean() ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1;
+            String document = randomDocument(random);
+            byte[] bytes = document.getBytes(charset);
+            Files.write(file, bytes);
+            boolean lazyValues = random.nextBoolean();
+            ConfigurationRegistry registry = new ConfigurationRegistry(ConfigurationRegistryOptions.builder()
+                            .systemPropertiesMode(ConfigurationRegistryOptions.SystemPropertiesMode.Skipped)
+                            .reverseIndexEnabled(!lazyValues)
+                            .lazyDecodedValuesEnabled(lazyValues)
+                            .build());
+            Map<String, String> expected;
+            try
+            {
+                expected = load(bytes, charset);
+            }
+            catch(IllegalArgumentException e)
+            {
+                assertThrows(ResourceException.class, () -> registry.loadProps(file, charset), document);
+                continue;
+            }
+            registry.loadProps(file, charset);
+            Map<String, String> loaded = new HashMap<>();
+            registry.forEachProp(loaded::put);
+            assertEquals(expected, loaded, document);
+        }
+    }
+
+
+    /**
+     * the values fill several arena chunks, and one is too long for a chunk
+     */
+    @Test
+    void keepsLazyValuesOnceTheFileIsTruncated() throws Exception
+    {
+        StringBuilder document = new StringBuilder();
+        for(int i = 0; i < 5_000; i++)
+        {
+            document.append("# property ").append(i).append('\n');
+            document.append("key").append(i).append(" = ").append("x".repeat(i % 300)).append(i % 7 == 0 ? "\\t\\u00e9" : "").append(i).append('\n');
+        }
+        document.append("long = ").append("y".repeat(100_000)).append('\n');
+        byte[] bytes = document.toString().getBytes(StandardCharsets.ISO_8859_1);
+        Path file = directory.resolve("lazy.properties");
+        Files.write(file, bytes);
+        ConfigurationRegistry registry = new ConfigurationRegistry(ConfigurationRegistryOptions.builder()
+                        .systemPropertiesMode(ConfigurationRegistryOptions.SystemPropertiesMode.Skipped)
+                        .reverseIndexEnabled(false)
+                        .lazyDecodedValuesEnabled(true)
+                        .build());
+        registry.loadProps(file);
+        Files.write(file, new byte[0]);
+        Map<String, String> loaded = new HashMap<>();
+        registry.forEachProp(loaded::put);
+        assertEquals(load(bytes, StandardCharsets.ISO_8859_1), loaded);
+    }
+
+
+    private static String randomDocument(Random random)
+    {
+        StringBuilder document = new StringBuilder();
+        int length = random.nextInt(60);
+        for(int i = 0; i < length; i++)
+        {
+            if(random.nextInt(10) == 0)
+            {
+                //a unicode escape that is sometimes malformed
+                document.append("\\u00").append("0123456789abcdefABCDEFg".charAt(random.nextInt(23))).append("0123456789abcdefABCDEF".charAt(random.nextInt(22)));
+            }
+            else
+            {
+                document.append(RandomDocumentAlphabet.charAt(random.nextInt(RandomDocumentAlphabet.length())));
+            }
+        }
+        return document.toString();
+    }
+
+
+    private static Map<String, String> load(byte[] bytes, Charset charset) throws IOException
+    {
+        Properties properties = new Properties();
+        if(StandardCharsets.ISO_8859_1.equals(charset))
+        {
+            properties.load(new ByteArrayInputStream(bytes));
+        }
+        else
+        {
+            properties.load(new InputStreamReader(new ByteArrayInputStream(bytes), charset));
+        }
+        Map<String, String> loaded = new HashMap<>();
+        properties.forEach((key, value) -> loaded.put((String)key, (String)value));
+        return loaded;
+    }
+
+
+    private static Map<String, String> parse(PropertiesParser parser, InputStream input) throws ResourceException
+    {
+        Map<String, String> parsed = new HashMap<>();
+        parser.parse(input, parsed::put);
+        return parsed;
+    }
+
+
+    private static final class TrickleInputStream extends FilterInputStream
+    {
+        private final Random random;
+
+
+        private TrickleInputStream(byte[] bytes, Random random)
+        {
+            super(new ByteArrayInputStream(bytes));
+            this.random = random;
+        }
+
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException
+        {
+            return super.read(buffer, offset, Math.min(length, 1 + random.nextInt(3)));
+        }
+    }
+}